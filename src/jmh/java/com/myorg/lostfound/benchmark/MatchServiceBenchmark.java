@@ -0,0 +1,189 @@
+package com.myorg.lostfound.benchmark;
+
+import com.myorg.lostfound.config.MatchCategoryProperties;
+import com.myorg.lostfound.dto.FoundItemCandidateDto;
+import com.myorg.lostfound.dto.MatchRequestDto;
+import com.myorg.lostfound.dto.MatchResultDto;
+import com.myorg.lostfound.dto.UserContactDto;
+import com.myorg.lostfound.model.FoundItem;
+import com.myorg.lostfound.model.LostItem;
+import com.myorg.lostfound.model.User;
+import com.myorg.lostfound.repository.FoundItemRepository;
+import com.myorg.lostfound.repository.LostItemRepository;
+import com.myorg.lostfound.repository.MatchRepository;
+import com.myorg.lostfound.service.DatabaseCandidateRetriever;
+import com.myorg.lostfound.service.HybridCandidateRetriever;
+import com.myorg.lostfound.service.InMemoryCandidateRetriever;
+import com.myorg.lostfound.service.MatchIndexService;
+import com.myorg.lostfound.service.MatchMetrics;
+import com.myorg.lostfound.service.MatchResultCache;
+import com.myorg.lostfound.service.MatchService;
+import com.myorg.lostfound.synthetic.SyntheticCorpus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * End-to-end {@link MatchService#findMatches} over a synthetic corpus: candidate retrieval, scoring and result
+ * mapping, with the result cache disabled. The services run in a plain Spring context on top of in-memory
+ * repository stubs, so the numbers leave out the database round trips of a real deployment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MatchServiceBenchmark {
+    
+    private static final int QUERY_COUNT = 256;
+    private static final int WINDOW_DAYS = 7;
+    
+    @Param({"1000", "100000", "1000000"})
+    private int corpusSize;
+    
+    @Param({"memory", "hybrid", "db"})
+    private String retriever;
+    
+    private AnnotationConfigApplicationContext context;
+    private MatchService matchService;
+    private List<MatchRequestDto> requests;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        SyntheticCorpus corpus = new SyntheticCorpus(42);
+        User user = new User(1L, "finder@example.com", "Finder", "123-456-7890", SyntheticCorpus.START, null, null);
+        List<FoundItem> foundItems = corpus.foundItems(corpusSize, user);
+        List<LostItem> lostItems = corpus.lostItems(QUERY_COUNT, user);
+        
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("app.match.candidate-retriever", retriever);
+        properties.put("app.match.cache.enabled", "false");
+        properties.put("app.match.index.file.enabled", "false");
+        properties.put("app.match.index.warm-up.enabled", "false");
+        properties.put("app.match.index.load-page-size", "10000");
+        
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.registerBean(FoundItemRepository.class, () -> foundItemRepository(foundItems));
+        context.registerBean(LostItemRepository.class, () -> lostItemRepository(lostItems));
+        // Only reverse matching reads stored matches
+        context.registerBean(MatchRepository.class, () -> mock(MatchRepository.class, withSettings().stubOnly()));
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.register(MatchCategoryProperties.class, MatchResultCache.class, MatchMetrics.class,
+                MatchIndexService.class, DatabaseCandidateRetriever.class, HybridCandidateRetriever.class,
+                InMemoryCandidateRetriever.class, MatchService.class);
+        context.refresh();
+        
+        // Build the index up front, so the measurement only covers matching
+        MatchIndexService matchIndexService = context.getBean(MatchIndexService.class);
+        matchIndexService.initialize();
+        while (matchIndexService.getSnapshot() == null) {
+            if (matchIndexService.getState() == MatchIndexService.State.FAILED) {
+                throw new IllegalStateException("Match index failed to build");
+            }
+            Thread.sleep(100);
+        }
+        matchService = context.getBean(MatchService.class);
+        
+        requests = new ArrayList<>(QUERY_COUNT);
+        for (LostItem lostItem : lostItems) {
+            MatchRequestDto request = new MatchRequestDto(lostItem.getId());
+            request.setDaysBefore(WINDOW_DAYS);
+            request.setDaysAfter(WINDOW_DAYS);
+            requests.add(request);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<MatchResultDto> findMatches() {
+        return matchService.findMatches(requests.get(next++ & (QUERY_COUNT - 1)));
+    }
+    
+    /**
+     * Stub answering the queries the match path makes from the generated found items
+     */
+    private static FoundItemRepository foundItemRepository(List<FoundItem> foundItems) {
+        List<FoundItem> byDate = new ArrayList<>(foundItems);
+        byDate.sort(Comparator.comparing(FoundItem::getDate));
+        List<LocalDateTime> dates = new ArrayList<>(byDate.size());
+        for (FoundItem foundItem : byDate) {
+            dates.add(foundItem.getDate());
+        }
+        
+        // Stub-only mocks do not record invocations, which would otherwise pile up during the measurement
+        FoundItemRepository repository = mock(FoundItemRepository.class, withSettings().stubOnly());
+        when(repository.count()).thenReturn((long) foundItems.size());
+        when(repository.findAll(any(Pageable.class)))
+                .thenAnswer(invocation -> page(foundItems, invocation.getArgument(0)));
+        when(repository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<FoundItem> found = new ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                found.add(foundItems.get((int) (id - 1)));
+            }
+            return found;
+        });
+        when(repository.findCandidatesByDateBetween(any(), any())).thenAnswer(invocation -> {
+            int from = Collections.binarySearch(dates, invocation.getArgument(0));
+            int to = Collections.binarySearch(dates, invocation.getArgument(1));
+            from = from >= 0 ? from : -from - 1;
+            to = to >= 0 ? to + 1 : -to - 1;
+            List<FoundItemCandidateDto> found = new ArrayList<>();
+            for (FoundItem foundItem : byDate.subList(from, Math.max(from, to))) {
+                found.add(candidate(foundItem));
+            }
+            return found;
+        });
+        when(repository.findUserContactsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            List<UserContactDto> contacts = new ArrayList<>();
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                User user = foundItems.get((int) (id - 1)).getUser();
+                contacts.add(new UserContactDto(id, user.getName(), user.getEmail(), user.getPhone()));
+            }
+            return contacts;
+        });
+        return repository;
+    }
+    
+    private static FoundItemCandidateDto candidate(FoundItem foundItem) {
+        return new FoundItemCandidateDto(foundItem.getId(), foundItem.getCategory(), foundItem.getDescription(),
+                foundItem.getLocation(), foundItem.getDate());
+    }
+    
+    /**
+     * Stub serving the generated lost items by id and page
+     */
+    private static LostItemRepository lostItemRepository(List<LostItem> lostItems) {
+        LostItemRepository repository = mock(LostItemRepository.class, withSettings().stubOnly());
+        when(repository.count()).thenReturn((long) lostItems.size());
+        when(repository.findAll(any(Pageable.class)))
+                .thenAnswer(invocation -> page(lostItems, invocation.getArgument(0)));
+        when(repository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.of(lostItems.get((int) (invocation.<Long>getArgument(0) - 1))));
+        return repository;
+    }
+    
+    private static <T> Page<T> page(List<T> items, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), items.size());
+        int to = Math.min(from + pageable.getPageSize(), items.size());
+        return new PageImpl<>(items.subList(from, to), pageable, items.size());
+    }
+}
@@ -0,0 +1,77 @@
+package com.myorg.lostfound.benchmark;
+
+import com.myorg.lostfound.synthetic.SyntheticCorpus;
+import com.myorg.lostfound.util.CosineSimilarity;
+import com.myorg.lostfound.util.JaccardSimilarity;
+import com.myorg.lostfound.util.SparseVector;
+import com.myorg.lostfound.util.TextVectorizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pairwise text similarity of synthetic descriptions: the cosine of sparse and map TF-IDF vectors,
+ * and the Jaccard fallback used while no index is available
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SimilarityBenchmark {
+    
+    private static final int CORPUS_SIZE = 10000;
+    private static final int PAIR_COUNT = 1024;
+    
+    private final List<String> textsA = new ArrayList<>();
+    private final List<String> textsB = new ArrayList<>();
+    private final List<SparseVector> sparseA = new ArrayList<>();
+    private final List<SparseVector> sparseB = new ArrayList<>();
+    private final List<Map<String, Double>> mapsA = new ArrayList<>();
+    private final List<Map<String, Double>> mapsB = new ArrayList<>();
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticCorpus corpus = new SyntheticCorpus(42);
+        TextVectorizer vectorizer = new TextVectorizer();
+        vectorizer.fit(corpus.descriptions(CORPUS_SIZE));
+        
+        for (int i = 0; i < PAIR_COUNT; i++) {
+            String a = corpus.description();
+            String b = corpus.description();
+            textsA.add(a);
+            textsB.add(b);
+            sparseA.add(vectorizer.transformSparse(a));
+            sparseB.add(vectorizer.transformSparse(b));
+            mapsA.add(vectorizer.transform(a));
+            mapsB.add(vectorizer.transform(b));
+        }
+    }
+    
+    @Benchmark
+    public double cosineSparse() {
+        int pair = nextPair();
+        return CosineSimilarity.compute(sparseA.get(pair), sparseB.get(pair));
+    }
+    
+    @Benchmark
+    public double cosineMap() {
+        int pair = nextPair();
+        return CosineSimilarity.compute(mapsA.get(pair), mapsB.get(pair));
+    }
+    
+    @Benchmark
+    public double jaccard() {
+        int pair = nextPair();
+        return JaccardSimilarity.compute(textsA.get(pair), textsB.get(pair));
+    }
+    
+    private int nextPair() {
+        return next++ & (PAIR_COUNT - 1);
+    }
+}
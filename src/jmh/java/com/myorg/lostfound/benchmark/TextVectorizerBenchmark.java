@@ -0,0 +1,63 @@
+package com.myorg.lostfound.benchmark;
+
+import com.myorg.lostfound.synthetic.SyntheticCorpus;
+import com.myorg.lostfound.util.SparseVector;
+import com.myorg.lostfound.util.TextVectorizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fitting a TF-IDF vectorizer on a synthetic corpus, and vectorizing unseen descriptions against it
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TextVectorizerBenchmark {
+    
+    private static final int QUERY_COUNT = 1024;
+    
+    @Param({"1000", "100000", "1000000"})
+    private int corpusSize;
+    
+    private List<String> documents;
+    private TextVectorizer vectorizer;
+    private List<String> queries;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticCorpus corpus = new SyntheticCorpus(42);
+        documents = corpus.descriptions(corpusSize);
+        queries = corpus.descriptions(QUERY_COUNT);
+        
+        vectorizer = new TextVectorizer();
+        vectorizer.fit(documents);
+    }
+    
+    @Benchmark
+    public TextVectorizer fit() {
+        TextVectorizer fitted = new TextVectorizer();
+        fitted.fit(documents);
+        return fitted;
+    }
+    
+    @Benchmark
+    public Map<String, Double> transform() {
+        return vectorizer.transform(nextQuery());
+    }
+    
+    @Benchmark
+    public SparseVector transformSparse() {
+        return vectorizer.transformSparse(nextQuery());
+    }
+    
+    private String nextQuery() {
+        return queries.get(next++ & (QUERY_COUNT - 1));
+    }
+}
@@ -0,0 +1,153 @@
+package com.myorg.lostfound.loadtest;
+
+import com.myorg.lostfound.LostFoundApplication;
+import com.myorg.lostfound.synthetic.SyntheticCorpus;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Seeds the configured database with synthetic users, lost items and found items for load testing.
+ *
+ * The application is booted without its web server so that Hibernate creates or updates the schema, with
+ * background matching work switched off; rows are then inserted with JDBC batches. Options are Spring
+ * properties given as command-line arguments, next to any spring.datasource.* override or
+ * --spring.profiles.active=loadtest,h2:
+ * --seed.users (10000), --seed.lost-items (1000000), --seed.found-items (1000000), --seed.batch-size (5000),
+ * --seed.random-seed (42) and --seed.output (target/loadtest/dataset.properties).
+ * The id ranges of the inserted rows are written to the output file, where {@link LoadTestRunner} reads them.
+ */
+public class DatasetGenerator {
+    
+    private static final int PROGRESS_INTERVAL = 100000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final Environment environment;
+    private final SyntheticCorpus corpus;
+    private final Random random;
+    private final int batchSize;
+    
+    private DatasetGenerator(ConfigurableApplicationContext context) {
+        this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+        this.environment = context.getEnvironment();
+        long seed = environment.getProperty("seed.random-seed", Long.class, 42L);
+        this.corpus = new SyntheticCorpus(seed);
+        this.random = new Random(seed);
+        this.batchSize = Math.max(environment.getProperty("seed.batch-size", Integer.class, 5000), 1);
+    }
+    
+    public static void main(String[] args) throws IOException {
+        // Nothing may match, precompute or index in the background while rows are being inserted
+        Map<String, Object> seedingProperties = new HashMap<>();
+        seedingProperties.put("app.match.index.warm-up.enabled", "false");
+        seedingProperties.put("app.match.incremental.enabled", "false");
+        seedingProperties.put("app.match.precompute.cron", "-");
+        
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(LostFoundApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(applicationContext -> applicationContext.getEnvironment().getPropertySources()
+                        .addFirst(new MapPropertySource("seeding", seedingProperties)))
+                .run(args);
+        try {
+            new DatasetGenerator(context).generate();
+        } finally {
+            context.close();
+        }
+    }
+    
+    private void generate() throws IOException {
+        int userCount = environment.getProperty("seed.users", Integer.class, 10000);
+        int lostItemCount = environment.getProperty("seed.lost-items", Integer.class, 1000000);
+        int foundItemCount = environment.getProperty("seed.found-items", Integer.class, 1000000);
+        Path output = Paths.get(environment.getProperty("seed.output", "target/loadtest/dataset.properties"));
+        
+        long started = System.nanoTime();
+        long[] users = insertUsers(userCount);
+        long[] lostItems = insertItems("lost_items", lostItemCount, users);
+        long[] foundItems = insertItems("found_items", foundItemCount, users);
+        
+        Properties dataset = new Properties();
+        putRange(dataset, "users", users);
+        putRange(dataset, "lost-items", lostItems);
+        putRange(dataset, "found-items", foundItems);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(output)) {
+            dataset.store(out, "Id ranges seeded by DatasetGenerator");
+        }
+        
+        System.out.printf("Seeded %d users, %d lost items and %d found items in %.1f s; id ranges written to %s%n",
+                userCount, lostItemCount, foundItemCount, (System.nanoTime() - started) / 1e9, output);
+    }
+    
+    /**
+     * Insert users, returning the first and last new id
+     */
+    private long[] insertUsers(int count) {
+        long firstId = maxId("users") + 1;
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < count; i++) {
+            long number = firstId + i;
+            batch.add(new Object[]{"user" + number + "@campus.example.edu", "User " + number,
+                    String.format("555-%03d-%04d", number / 10000 % 1000, number % 10000), Timestamp.valueOf(now)});
+            if (batch.size() == batchSize || i == count - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO users (email, name, phone, created_at) VALUES (?, ?, ?, ?)",
+                        batch);
+                batch.clear();
+            }
+        }
+        return new long[]{firstId, maxId("users")};
+    }
+    
+    /**
+     * Insert lost or found items reported by random users of the given id range, returning the first and last new id
+     */
+    private long[] insertItems(String table, int count, long[] users) {
+        long firstId = maxId(table) + 1;
+        String sql = "INSERT INTO " + table
+                + " (user_id, title, description, category, location, date, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < count; i++) {
+            String description = corpus.description();
+            LocalDateTime date = corpus.date();
+            // Items are reported up to two days after they were lost or found
+            LocalDateTime createdAt = date.plusMinutes(random.nextInt(2 * 24 * 60));
+            long userId = users[0] + (long) (random.nextDouble() * (users[1] - users[0] + 1));
+            batch.add(new Object[]{userId, corpus.title(description), description, corpus.category(),
+                    corpus.location(), Timestamp.valueOf(date), Timestamp.valueOf(createdAt)});
+            
+            if (batch.size() == batchSize || i == count - 1) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+            if ((i + 1) % PROGRESS_INTERVAL == 0) {
+                System.out.printf("%s: %d / %d%n", table, i + 1, count);
+            }
+        }
+        return new long[]{firstId, maxId(table)};
+    }
+    
+    private long maxId(String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return maxId != null ? maxId : 0;
+    }
+    
+    private static void putRange(Properties dataset, String name, long[] range) {
+        dataset.setProperty(name + ".min", String.valueOf(range[0]));
+        dataset.setProperty(name + ".max", String.valueOf(range[1]));
+    }
+}
@@ -0,0 +1,316 @@
+package com.myorg.lostfound.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Drives a running instance with a weighted mix of match and image upload requests from a fixed number of
+ * concurrent clients, each sending its next request as soon as the previous one completes, then prints the
+ * throughput and latency percentiles of every endpoint. Only 2xx responses count as successes.
+ *
+ * Options (--name=value): base-url (http://localhost:8080), concurrency (16), warm-up (10 seconds, not measured),
+ * duration (60 seconds, measured), days (7, the match window on each side of the item date),
+ * batch-size (10 lost items per batch request), dataset (target/loadtest/dataset.properties, the id ranges
+ * written by {@link DatasetGenerator}) and mix, the relative weight of each endpoint:
+ * find=40,date-range=25,found-item=15,batch=10,image=10.
+ */
+public class LoadTestRunner {
+    
+    private static final String DEFAULT_MIX = "find=40,date-range=25,found-item=15,batch=10,image=10";
+    
+    // Smallest valid PNG: one transparent pixel
+    private static final byte[] PNG = Base64.getDecoder().decode(
+            "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNkYPhfDwAChwGA60e6kgAAAABJRU5ErkJggg==");
+    
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    
+    private final HttpClient client;
+    private final String baseUrl;
+    private final int days;
+    private final int batchSize;
+    private final long[] lostItemIds;
+    private final long[] foundItemIds;
+    private final List<String> endpoints;
+    private final double[] cumulativeWeights;
+    
+    private LoadTestRunner(Map<String, String> options) throws IOException {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        this.days = Integer.parseInt(options.getOrDefault("days", "7"));
+        this.batchSize = Integer.parseInt(options.getOrDefault("batch-size", "10"));
+        
+        Properties dataset = new Properties();
+        Path datasetPath = Paths.get(options.getOrDefault("dataset", "target/loadtest/dataset.properties"));
+        try (InputStream in = Files.newInputStream(datasetPath)) {
+            dataset.load(in);
+        }
+        this.lostItemIds = range(dataset, "lost-items");
+        this.foundItemIds = range(dataset, "found-items");
+        
+        this.endpoints = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        for (String entry : options.getOrDefault("mix", DEFAULT_MIX).split(",")) {
+            String[] parts = entry.trim().split("=");
+            endpoints.add(parts[0]);
+            weights.add(Double.parseDouble(parts[1]));
+        }
+        this.cumulativeWeights = new double[weights.size()];
+        double total = 0;
+        for (int i = 0; i < weights.size(); i++) {
+            total += weights.get(i);
+            cumulativeWeights[i] = total;
+        }
+        for (String endpoint : endpoints) {
+            // Fail on a typo before any load is sent
+            request(endpoint, new Random());
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        long warmUpSeconds = Long.parseLong(options.getOrDefault("warm-up", "10"));
+        long durationSeconds = Long.parseLong(options.getOrDefault("duration", "60"));
+        new LoadTestRunner(options).run(concurrency, warmUpSeconds, durationSeconds);
+    }
+    
+    private void run(int concurrency, long warmUpSeconds, long durationSeconds) throws InterruptedException {
+        System.out.printf("Driving %s with %d clients: %d s warm-up, %d s measured%n",
+                baseUrl, concurrency, warmUpSeconds, durationSeconds);
+        
+        long measureFrom = System.nanoTime() + warmUpSeconds * 1_000_000_000L;
+        long measureUntil = measureFrom + durationSeconds * 1_000_000_000L;
+        List<Map<String, LatencyRecorder>> workerRecorders = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Map<String, LatencyRecorder> recorders = new HashMap<>();
+            workerRecorders.add(recorders);
+            Thread worker = new Thread(() -> drive(recorders, measureFrom, measureUntil), "load-client-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        
+        // Merge the per-client recorders, which were never shared while the load was running
+        Map<String, LatencyRecorder> merged = new TreeMap<>();
+        LatencyRecorder total = new LatencyRecorder();
+        for (Map<String, LatencyRecorder> recorders : workerRecorders) {
+            for (Map.Entry<String, LatencyRecorder> entry : recorders.entrySet()) {
+                merged.computeIfAbsent(entry.getKey(), endpoint -> new LatencyRecorder()).addAll(entry.getValue());
+                total.addAll(entry.getValue());
+            }
+        }
+        report(merged, total, durationSeconds);
+    }
+    
+    private void drive(Map<String, LatencyRecorder> recorders, long measureFrom, long measureUntil) {
+        Random random = ThreadLocalRandom.current();
+        while (System.nanoTime() < measureUntil) {
+            String endpoint = pickEndpoint(random);
+            HttpRequest request = request(endpoint, random);
+            
+            long started = System.nanoTime();
+            boolean success;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                success = response.statusCode() / 100 == 2;
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long finished = System.nanoTime();
+            
+            if (started >= measureFrom && finished <= measureUntil) {
+                recorders.computeIfAbsent(endpoint, name -> new LatencyRecorder()).record(finished - started, success);
+            }
+        }
+    }
+    
+    private String pickEndpoint(Random random) {
+        double target = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (target < cumulativeWeights[i]) {
+                return endpoints.get(i);
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+    
+    /**
+     * Build a request for an endpoint of the mix, for random lost or found items of the dataset
+     */
+    private HttpRequest request(String endpoint, Random random) {
+        switch (endpoint) {
+            case "find":
+                return post("/api/matches/find", String.format(
+                        "{\"lostItemId\": %d, \"daysBefore\": %d, \"daysAfter\": %d, \"limit\": 10}",
+                        pick(lostItemIds, random), days, days));
+            case "date-range":
+                return get(String.format("/api/matches/lost-item/%d/date-range?daysBefore=%d&daysAfter=%d",
+                        pick(lostItemIds, random), days, days));
+            case "found-item":
+                return get(String.format("/api/matches/found-item/%d?daysBefore=%d&daysAfter=%d",
+                        pick(foundItemIds, random), days, days));
+            case "batch":
+                String ids = LongStream.range(0, batchSize)
+                        .mapToObj(i -> String.valueOf(pick(lostItemIds, random)))
+                        .collect(Collectors.joining(", "));
+                return post("/api/matches/batch", String.format(
+                        "{\"lostItemIds\": [%s], \"daysBefore\": %d, \"daysAfter\": %d, \"limit\": 10}",
+                        ids, days, days));
+            case "image":
+                return uploadImage(pick(lostItemIds, random), random);
+            default:
+                throw new IllegalArgumentException("Unknown endpoint in mix: " + endpoint
+                        + " (expected find, date-range, found-item, batch or image)");
+        }
+    }
+    
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+    
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+    
+    /**
+     * Build a multipart upload of a small PNG as the image of a lost item
+     */
+    private HttpRequest uploadImage(long lostItemId, Random random) {
+        String boundary = "loadtest" + Long.toHexString(random.nextLong());
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] head = ("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"photo.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        body.write(head, 0, head.length);
+        body.write(PNG, 0, PNG.length);
+        body.write(tail, 0, tail.length);
+        
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/lost/" + lostItemId + "/image"))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+    }
+    
+    private static void report(Map<String, LatencyRecorder> recorders, LatencyRecorder total, long durationSeconds) {
+        System.out.printf("%n%-12s %9s %7s %9s %9s", "endpoint", "requests", "errors", "req/s", "mean ms");
+        for (double percentile : PERCENTILES) {
+            System.out.printf(" %9s", "p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile)
+                    : String.valueOf(percentile)));
+        }
+        System.out.printf(" %9s%n", "max");
+        
+        for (Map.Entry<String, LatencyRecorder> entry : recorders.entrySet()) {
+            printRow(entry.getKey(), entry.getValue(), durationSeconds);
+        }
+        printRow("total", total, durationSeconds);
+    }
+    
+    private static void printRow(String name, LatencyRecorder recorder, long durationSeconds) {
+        long[] latencies = recorder.sorted();
+        System.out.printf("%-12s %9d %7d %9.1f %9.2f", name, latencies.length, recorder.errors,
+                (double) latencies.length / durationSeconds, recorder.mean() / 1e6);
+        for (double percentile : PERCENTILES) {
+            System.out.printf(" %9.2f", percentileOf(latencies, percentile) / 1e6);
+        }
+        System.out.printf(" %9.2f%n", latencies.length > 0 ? latencies[latencies.length - 1] / 1e6 : 0.0);
+    }
+    
+    /**
+     * Nearest-rank percentile of sorted latencies
+     */
+    private static long percentileOf(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sortedLatencies.length);
+        return sortedLatencies[Math.max(rank, 1) - 1];
+    }
+    
+    private static long pick(long[] range, Random random) {
+        return range[0] + (long) (random.nextDouble() * (range[1] - range[0] + 1));
+    }
+    
+    private static long[] range(Properties dataset, String name) {
+        String min = dataset.getProperty(name + ".min");
+        String max = dataset.getProperty(name + ".max");
+        if (min == null || max == null || Long.parseLong(min) > Long.parseLong(max)) {
+            throw new IllegalArgumentException("The dataset file has no " + name + "; seed them with DatasetGenerator");
+        }
+        return new long[]{Long.parseLong(min), Long.parseLong(max)};
+    }
+    
+    /**
+     * Latencies in nanoseconds of one endpoint, in a growable array owned by a single client thread
+     */
+    private static final class LatencyRecorder {
+        
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+        
+        private void record(long latency, boolean success) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latency;
+            if (!success) {
+                errors++;
+            }
+        }
+        
+        private void addAll(LatencyRecorder other) {
+            for (int i = 0; i < other.size; i++) {
+                record(other.latencies[i], true);
+            }
+            errors += other.errors;
+        }
+        
+        private long[] sorted() {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+        
+        private double mean() {
+            long sum = 0;
+            for (int i = 0; i < size; i++) {
+                sum += latencies[i];
+            }
+            return size > 0 ? (double) sum / size : 0;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.myorg.lostfound.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Category relations used by category-aware matching.
+ * Each entry lists the categories related to a category, for example
+ * {@code app.match.category.related.wallets=bags,accessories}; use brackets for names with spaces,
+ * as in {@code app.match.category.related[personal items]=bags}. Relations apply in both directions
+ * and category names are compared case-insensitively.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.match.category")
+public class MatchCategoryProperties {
+
+    private Map<String, List<String>> related = new HashMap<>();
+
+    public Map<String, List<String>> getRelated() {
+        return related;
+    }
+
+    public void setRelated(Map<String, List<String>> related) {
+        this.related = related;
+    }
+}
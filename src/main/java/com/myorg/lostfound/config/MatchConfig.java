@@ -0,0 +1,51 @@
+package com.myorg.lostfound.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuration for match processing resources
+ */
+@Configuration
+@EnableScheduling
+public class MatchConfig {
+
+    /**
+     * Bounded executor running streamed batch match requests off the servlet threads
+     */
+    @Bean(name = "matchBatchExecutor")
+    public ThreadPoolTaskExecutor matchBatchExecutor(
+            @Value("${app.match.batch.threads:2}") int threads,
+            @Value("${app.match.batch.queue-capacity:16}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("match-batch-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bounded executor computing matches for newly created items.
+     * When the queue is full the submitting scheduler thread runs the work itself, throttling further drains.
+     */
+    @Bean(name = "matchIncrementalExecutor")
+    public ThreadPoolTaskExecutor matchIncrementalExecutor(
+            @Value("${app.match.incremental.threads:2}") int threads,
+            @Value("${app.match.incremental.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("match-incremental-");
+        executor.initialize();
+        return executor;
+    }
+}
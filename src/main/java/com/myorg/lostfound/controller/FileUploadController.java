@@ -151,54 +151,35 @@ public class FileUploadController {
      */
     @GetMapping("/images/{filename:.+}")
     public ResponseEntity<Resource> serveImage(@PathVariable String filename) {
-        try {
-            Path filePath = Paths.get("uploads").resolve(filename).normalize();
-if (filePath == null) {
-    return ResponseEntity.badRequest().build();
-}
-
-URI uri;
-try {
-    uri = filePath.toUri();
-} catch (Exception e) {
-    return ResponseEntity.badRequest().build();
-}
-
-Resource resource;
-try {
-    resource = new UrlResource(uri);
-} catch (MalformedURLException e) {
-    return ResponseEntity.badRequest().build();
-}
-
-if (resource.exists() && resource.isReadable()) {
-    String contentType = determineContentType(filename);
+        Path filePath = Paths.get("uploads").resolve(filename).normalize();
+        if (filePath == null) {
+            return ResponseEntity.badRequest().build();
+        }
 
-    return ResponseEntity.ok()
-            .contentType(MediaType.parseMediaType(contentType))
-            .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"")
-            .body(resource);
-} else {
-    return ResponseEntity.notFound().build();
-}
+        URI uri;
+        try {
+            uri = filePath.toUri();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
 
-           /*  Path filePath = Paths.get("uploads").resolve(filename).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-            
-            if (resource.exists() && resource.isReadable()) {
-                String contentType = determineContentType(filename);
-                
-                return ResponseEntity.ok()
-                        .contentType(MediaType.parseMediaType(contentType))
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"")
-                        .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
-            }*/
-            
+        Resource resource;
+        try {
+            resource = new UrlResource(uri);
         } catch (MalformedURLException e) {
             return ResponseEntity.badRequest().build();
         }
+
+        if (resource.exists() && resource.isReadable()) {
+            String contentType = determineContentType(filename);
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(contentType))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"")
+                    .body(resource);
+        } else {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     /**
@@ -1,16 +1,35 @@
 package com.myorg.lostfound.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myorg.lostfound.dto.BatchMatchRequestDto;
+import com.myorg.lostfound.dto.LostItemMatchResultDto;
 import com.myorg.lostfound.dto.MatchRequestDto;
 import com.myorg.lostfound.dto.MatchResultDto;
+import com.myorg.lostfound.dto.ReverseMatchRequestDto;
+import com.myorg.lostfound.service.MatchMetrics;
+import com.myorg.lostfound.service.MatchPrecomputeService;
+import com.myorg.lostfound.service.MatchResultCache;
 import com.myorg.lostfound.service.MatchService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * REST Controller for match operations
@@ -20,9 +39,31 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class MatchController {
 
+    private static final long BATCH_STREAM_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private static final long MATCH_STREAM_TIMEOUT_MS = 5 * 60 * 1000L;
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     @Autowired
     private MatchService matchService;
 
+    @Autowired
+    private MatchPrecomputeService matchPrecomputeService;
+
+    @Autowired
+    private MatchResultCache matchResultCache;
+
+    @Autowired
+    @Qualifier("matchBatchExecutor")
+    private ThreadPoolTaskExecutor matchBatchExecutor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MatchMetrics matchMetrics;
+
     /**
      * Find matches for a lost item
      */
@@ -52,9 +93,18 @@ public class MatchController {
      * Find matches for a lost item by ID (simple endpoint)
      */
     @GetMapping("/lost-item/{lostItemId}")
-    public ResponseEntity<Map<String, Object>> findMatchesByLostItemId(@PathVariable Long lostItemId) {
+    public ResponseEntity<Map<String, Object>> findMatchesByLostItemId(
+            @PathVariable Long lostItemId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Double minScore,
+            @RequestParam(required = false) MatchRequestDto.CategoryMode categoryMode,
+            @RequestParam(required = false) String retriever) {
         try {
             MatchRequestDto request = new MatchRequestDto(lostItemId);
+            request.setLimit(limit);
+            request.setMinScore(minScore);
+            request.setCategoryMode(categoryMode);
+            request.setRetriever(retriever);
             List<MatchResultDto> matches = matchService.findMatches(request);
             
             Map<String, Object> response = new HashMap<>();
@@ -74,16 +124,70 @@ public class MatchController {
         }
     }
 
+    /**
+     * Find matches for a lost item, streaming a provisional best set as Server-Sent Events each time
+     * a shard of candidates is scored ("provisional", then "complete" or "error")
+     */
+    @PostMapping(value = "/find/stream", produces = "text/event-stream")
+    public SseEmitter streamMatches(@Valid @RequestBody MatchRequestDto request) {
+        return streamMatchesAsEvents(request);
+    }
+
+    /**
+     * Find matches for a lost item by ID, streaming the refinements as Server-Sent Events
+     */
+    @GetMapping(value = "/lost-item/{lostItemId}/stream", produces = "text/event-stream")
+    public SseEmitter streamMatchesByLostItemId(
+            @PathVariable Long lostItemId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Double minScore,
+            @RequestParam(required = false) MatchRequestDto.CategoryMode categoryMode,
+            @RequestParam(required = false) String retriever) {
+        MatchRequestDto request = new MatchRequestDto(lostItemId);
+        request.setLimit(limit);
+        request.setMinScore(minScore);
+        request.setCategoryMode(categoryMode);
+        request.setRetriever(retriever);
+        return streamMatchesAsEvents(request);
+    }
+
+    /**
+     * Find matches for a lost item, streaming the refinements as newline-delimited JSON:
+     * one {"type":"provisional"} line per refinement, then a {"type":"complete"} or {"type":"error"} line
+     */
+    @PostMapping("/find/ndjson")
+    public ResponseEntity<StreamingResponseBody> streamMatchesAsNdjson(@Valid @RequestBody MatchRequestDto request) {
+        StreamingResponseBody body = output -> {
+            try {
+                List<MatchResultDto> matches = matchService.streamMatches(request,
+                        (provisional, scored, total) -> writeLine(output, provisionalUpdate(provisional, scored, total)));
+                
+                Map<String, Object> complete = completeUpdate(matches.size());
+                complete.put("data", matches);
+                writeLine(output, complete);
+            } catch (UncheckedIOException e) {
+                // Client already gone
+            } catch (Exception e) {
+                writeLine(output, errorUpdate(e));
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
     /**
      * Find matches with location filter
      */
     @GetMapping("/lost-item/{lostItemId}/location/{location}")
     public ResponseEntity<Map<String, Object>> findMatchesByLocation(
             @PathVariable Long lostItemId, 
-            @PathVariable String location) {
+            @PathVariable String location,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Double minScore) {
         try {
             MatchRequestDto request = new MatchRequestDto(lostItemId);
             request.setLocationFilter(location);
+            request.setLimit(limit);
+            request.setMinScore(minScore);
             List<MatchResultDto> matches = matchService.findMatches(request);
             
             Map<String, Object> response = new HashMap<>();
@@ -110,11 +214,15 @@ public class MatchController {
     public ResponseEntity<Map<String, Object>> findMatchesByDateRange(
             @PathVariable Long lostItemId,
             @RequestParam(required = false) Integer daysBefore,
-            @RequestParam(required = false) Integer daysAfter) {
+            @RequestParam(required = false) Integer daysAfter,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Double minScore) {
         try {
             MatchRequestDto request = new MatchRequestDto(lostItemId);
             request.setDaysBefore(daysBefore);
             request.setDaysAfter(daysAfter);
+            request.setLimit(limit);
+            request.setMinScore(minScore);
             List<MatchResultDto> matches = matchService.findMatches(request);
             
             Map<String, Object> response = new HashMap<>();
@@ -133,4 +241,335 @@ public class MatchController {
             return ResponseEntity.badRequest().body(response);
         }
     }
+
+    /**
+     * Get the precomputed matches of a lost item
+     */
+    @GetMapping("/lost-item/{lostItemId}/precomputed")
+    public ResponseEntity<Map<String, Object>> getPrecomputedMatches(@PathVariable Long lostItemId) {
+        try {
+            List<MatchResultDto> matches = matchPrecomputeService.getPrecomputedMatches(lostItemId);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Matches found successfully");
+            response.put("data", matches);
+            response.put("count", matches.size());
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error finding matches: " + e.getMessage());
+            response.put("data", null);
+            
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Run the match precomputation now instead of waiting for the nightly schedule
+     */
+    @PostMapping("/precompute")
+    public ResponseEntity<Map<String, Object>> runPrecomputation() {
+        Map<String, Object> response = new HashMap<>();
+        int processed;
+        try {
+            processed = matchPrecomputeService.runPrecomputation();
+        } catch (IllegalStateException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            response.put("data", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+        
+        if (processed < 0) {
+            response.put("success", false);
+            response.put("message", "Match precomputation is already running");
+            response.put("data", null);
+            return ResponseEntity.status(409).body(response);
+        }
+        
+        response.put("success", true);
+        response.put("message", "Match precomputation completed");
+        response.put("data", null);
+        response.put("count", processed);
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get the match result cache statistics, including the hit rate
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Match cache statistics");
+        response.put("data", matchResultCache.getStats());
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Find lost items matching a found item
+     */
+    @PostMapping("/find-lost")
+    public ResponseEntity<Map<String, Object>> findLostItemMatches(@Valid @RequestBody ReverseMatchRequestDto request) {
+        try {
+            List<LostItemMatchResultDto> matches = matchService.findLostItemMatches(request);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Matches found successfully");
+            response.put("data", matches);
+            response.put("count", matches.size());
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error finding matches: " + e.getMessage());
+            response.put("data", null);
+            
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Find lost items matching a found item by ID (simple endpoint)
+     */
+    @GetMapping("/found-item/{foundItemId}")
+    public ResponseEntity<Map<String, Object>> findLostItemMatchesByFoundItemId(
+            @PathVariable Long foundItemId,
+            @RequestParam(required = false) Integer daysBefore,
+            @RequestParam(required = false) Integer daysAfter,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Double minScore) {
+        try {
+            ReverseMatchRequestDto request = new ReverseMatchRequestDto(foundItemId);
+            request.setDaysBefore(daysBefore);
+            request.setDaysAfter(daysAfter);
+            request.setLimit(limit);
+            request.setMinScore(minScore);
+            List<LostItemMatchResultDto> matches = matchService.findLostItemMatches(request);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Matches found successfully");
+            response.put("data", matches);
+            response.put("count", matches.size());
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error finding matches: " + e.getMessage());
+            response.put("data", null);
+            
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Find matches for many lost items in one call, grouped by lost item id
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> findMatchesBatch(@Valid @RequestBody BatchMatchRequestDto request) {
+        try {
+            Map<Long, List<MatchResultDto>> matches = matchService.findMatchesBatch(request);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Matches found successfully");
+            response.put("data", matches);
+            response.put("count", matches.size());
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error finding matches: " + e.getMessage());
+            response.put("data", null);
+            
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Find matches for many lost items, streaming each lost item's results and the batch progress
+     * as Server-Sent Events ("result", "progress", then "complete" or "error")
+     */
+    @PostMapping(value = "/batch/stream", produces = "text/event-stream")
+    public SseEmitter streamMatchesBatch(@Valid @RequestBody BatchMatchRequestDto request) {
+        SseEmitter emitter = new SseEmitter(BATCH_STREAM_TIMEOUT_MS);
+        // The service matches each distinct id once
+        int total = new HashSet<>(request.getLostItemIds()).size();
+        AtomicInteger completed = new AtomicInteger();
+        
+        try {
+            matchBatchExecutor.execute(() -> {
+                try {
+                    matchService.findMatchesBatch(request, (lostItemId, matches) -> {
+                        Map<String, Object> result = new HashMap<>();
+                        result.put("lostItemId", lostItemId);
+                        result.put("data", matches);
+                        result.put("count", matches.size());
+                        
+                        Map<String, Object> progress = new HashMap<>();
+                        progress.put("completed", completed.incrementAndGet());
+                        progress.put("total", total);
+                        
+                        sendEvent(emitter, "result", result);
+                        sendEvent(emitter, "progress", progress);
+                    });
+                    
+                    Map<String, Object> complete = new HashMap<>();
+                    complete.put("success", true);
+                    complete.put("message", "Matches found successfully");
+                    complete.put("count", completed.get());
+                    sendEvent(emitter, "complete", complete);
+                    emitter.complete();
+                } catch (Exception e) {
+                    Map<String, Object> error = new HashMap<>();
+                    error.put("success", false);
+                    error.put("message", "Error finding matches: " + e.getMessage());
+                    try {
+                        emitter.send(SseEmitter.event().name("error").data(error));
+                    } catch (Exception ignored) {
+                        // Client already gone
+                    }
+                    emitter.complete();
+                }
+            });
+        } catch (TaskRejectedException e) {
+            emitter.completeWithError(e);
+        }
+        
+        return emitter;
+    }
+
+    /**
+     * Find matches for many lost items, streaming each lost item's results as one newline-delimited JSON line
+     * ({"type":"result"}), then a {"type":"complete"} or {"type":"error"} line.
+     * Results are written as soon as they are computed, so the response is never held in memory as a whole.
+     */
+    @PostMapping("/batch/ndjson")
+    public ResponseEntity<StreamingResponseBody> streamMatchesBatchAsNdjson(
+            @Valid @RequestBody BatchMatchRequestDto request) {
+        int total = new HashSet<>(request.getLostItemIds()).size();
+        StreamingResponseBody body = output -> {
+            AtomicInteger completed = new AtomicInteger();
+            try {
+                matchService.findMatchesBatch(request, (lostItemId, matches) -> {
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("type", "result");
+                    result.put("lostItemId", lostItemId);
+                    result.put("data", matches);
+                    result.put("count", matches.size());
+                    result.put("completed", completed.incrementAndGet());
+                    result.put("total", total);
+                    writeLine(output, result);
+                });
+                
+                writeLine(output, completeUpdate(completed.get()));
+            } catch (UncheckedIOException e) {
+                // Client already gone
+            } catch (Exception e) {
+                writeLine(output, errorUpdate(e));
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Run a streamed match on the batch executor, sending each refinement as a "provisional" event
+     */
+    private SseEmitter streamMatchesAsEvents(MatchRequestDto request) {
+        SseEmitter emitter = new SseEmitter(MATCH_STREAM_TIMEOUT_MS);
+        
+        try {
+            matchBatchExecutor.execute(() -> {
+                try {
+                    List<MatchResultDto> matches = matchService.streamMatches(request,
+                            (provisional, scored, total) ->
+                                    sendEvent(emitter, "provisional", provisionalUpdate(provisional, scored, total)));
+                    
+                    Map<String, Object> complete = completeUpdate(matches.size());
+                    complete.put("data", matches);
+                    sendEvent(emitter, "complete", complete);
+                    emitter.complete();
+                } catch (Exception e) {
+                    try {
+                        emitter.send(SseEmitter.event().name("error").data(errorUpdate(e)));
+                    } catch (Exception ignored) {
+                        // Client already gone
+                    }
+                    emitter.complete();
+                }
+            });
+        } catch (TaskRejectedException e) {
+            emitter.completeWithError(e);
+        }
+        
+        return emitter;
+    }
+
+    private Map<String, Object> provisionalUpdate(List<MatchResultDto> matches, int scored, int total) {
+        Map<String, Object> update = new HashMap<>();
+        update.put("type", "provisional");
+        update.put("data", matches);
+        update.put("count", matches.size());
+        update.put("scored", scored);
+        update.put("total", total);
+        return update;
+    }
+
+    private Map<String, Object> completeUpdate(int count) {
+        Map<String, Object> update = new HashMap<>();
+        update.put("type", "complete");
+        update.put("success", true);
+        update.put("message", "Matches found successfully");
+        update.put("count", count);
+        return update;
+    }
+
+    private Map<String, Object> errorUpdate(Exception e) {
+        Map<String, Object> update = new HashMap<>();
+        update.put("type", "error");
+        update.put("success", false);
+        update.put("message", "Error finding matches: " + e.getMessage());
+        return update;
+    }
+
+    /**
+     * Write one JSON line and flush it to the client, turning write failures into an unchecked exception
+     * that aborts the stream
+     */
+    private void writeLine(OutputStream output, Object data) {
+        long started = System.nanoTime();
+        try {
+            output.write(objectMapper.writeValueAsBytes(data));
+            output.write('\n');
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Client disconnected", e);
+        } finally {
+            matchMetrics.recordPhase(MatchMetrics.Phase.SERIALIZATION, started);
+        }
+    }
+
+    /**
+     * Send a named event, turning send failures into an unchecked exception that aborts the batch
+     */
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
+        long started = System.nanoTime();
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException e) {
+            throw new IllegalStateException("Client disconnected", e);
+        } finally {
+            matchMetrics.recordPhase(MatchMetrics.Phase.SERIALIZATION, started);
+        }
+    }
 }
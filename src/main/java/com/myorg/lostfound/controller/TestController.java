@@ -1,5 +1,9 @@
 package com.myorg.lostfound.controller;
 
+import com.myorg.lostfound.service.MatchIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -14,6 +18,9 @@ import java.util.Map;
 @RequestMapping("/api/test")
 public class TestController {
 
+    @Autowired
+    private MatchIndexService matchIndexService;
+
     @GetMapping("/hello")
     public Map<String, String> hello() {
         Map<String, String> response = new HashMap<>();
@@ -23,12 +30,27 @@ public class TestController {
         return response;
     }
 
+    /**
+     * Health and readiness check.
+     * Responds with 503 and readiness NOT_READY until the match index has been loaded,
+     * so a load balancer holds traffic back from a node that is still warming up.
+     */
     @GetMapping("/health")
-    public Map<String, String> health() {
-        Map<String, String> response = new HashMap<>();
+    public ResponseEntity<Map<String, Object>> health() {
+        boolean ready = matchIndexService.isReady();
+        
+        Map<String, Object> matchIndex = new HashMap<>();
+        matchIndex.put("state", matchIndexService.getState());
+        matchIndex.put("loadedItems", matchIndexService.getLoadedItemCount());
+        matchIndex.put("totalItems", matchIndexService.getTotalItemCount());
+        
+        Map<String, Object> response = new HashMap<>();
         response.put("status", "UP");
+        response.put("readiness", ready ? "READY" : "NOT_READY");
         response.put("service", "Lost & Found Backend");
         response.put("version", "1.0.0");
-        return response;
+        response.put("matchIndex", matchIndex);
+        
+        return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(response);
     }
 }
@@ -0,0 +1,85 @@
+package com.myorg.lostfound.dto;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO for batch match requests covering many lost items
+ */
+public class BatchMatchRequestDto {
+    
+    @NotEmpty(message = "At least one lost item ID is required")
+    @Size(max = 10000, message = "At most 10000 lost items can be matched per batch")
+    private List<Long> lostItemIds;
+    
+    private String locationFilter;
+    private Integer daysBefore;
+    private Integer daysAfter;
+    
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 100, message = "Limit must be at most 100")
+    private Integer limit;
+    
+    @DecimalMin(value = "0.0", message = "Minimum score must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Minimum score must be between 0 and 1")
+    private Double minScore;
+    
+    public BatchMatchRequestDto() {}
+    
+    public BatchMatchRequestDto(List<Long> lostItemIds) {
+        this.lostItemIds = lostItemIds;
+    }
+    
+    public List<Long> getLostItemIds() {
+        return lostItemIds;
+    }
+    
+    public void setLostItemIds(List<Long> lostItemIds) {
+        this.lostItemIds = lostItemIds;
+    }
+    
+    public String getLocationFilter() {
+        return locationFilter;
+    }
+    
+    public void setLocationFilter(String locationFilter) {
+        this.locationFilter = locationFilter;
+    }
+    
+    public Integer getDaysBefore() {
+        return daysBefore;
+    }
+    
+    public void setDaysBefore(Integer daysBefore) {
+        this.daysBefore = daysBefore;
+    }
+    
+    public Integer getDaysAfter() {
+        return daysAfter;
+    }
+    
+    public void setDaysAfter(Integer daysAfter) {
+        this.daysAfter = daysAfter;
+    }
+    
+    public Integer getLimit() {
+        return limit;
+    }
+    
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+    
+    public Double getMinScore() {
+        return minScore;
+    }
+    
+    public void setMinScore(Double minScore) {
+        this.minScore = minScore;
+    }
+}
@@ -0,0 +1,66 @@
+package com.myorg.lostfound.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the fields of a found item that match scoring reads, selected without the rest of the row and its user.
+ * The description may be null when the item's text is scored from its indexed vector.
+ */
+public class FoundItemCandidateDto {
+    
+    private Long id;
+    private String category;
+    private String description;
+    private String location;
+    private LocalDateTime date;
+    
+    public FoundItemCandidateDto() {}
+    
+    public FoundItemCandidateDto(Long id, String category, String description, String location, LocalDateTime date) {
+        this.id = id;
+        this.category = category;
+        this.description = description;
+        this.location = location;
+        this.date = date;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public void setCategory(String category) {
+        this.category = category;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public String getLocation() {
+        return location;
+    }
+    
+    public void setLocation(String location) {
+        this.location = location;
+    }
+    
+    public LocalDateTime getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDateTime date) {
+        this.date = date;
+    }
+}
@@ -0,0 +1,149 @@
+package com.myorg.lostfound.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for reverse match results, describing a lost item matching a found item
+ */
+public class LostItemMatchResultDto {
+    
+    private Long lostItemId;
+    private String lostItemTitle;
+    private String lostItemDescription;
+    private String lostItemCategory;
+    private String lostItemLocation;
+    private LocalDateTime lostItemDate;
+    private String lostItemImagePath;
+    private LocalDateTime lostItemCreatedAt;
+    
+    private String lostByUserName;
+    private String lostByUserEmail;
+    private String lostByUserPhone;
+    
+    private Double matchScore;
+    private Double textSimilarity;
+    private Double locationScore;
+    private Double dateScore;
+    
+    public LostItemMatchResultDto() {}
+    
+    public Long getLostItemId() {
+        return lostItemId;
+    }
+    
+    public void setLostItemId(Long lostItemId) {
+        this.lostItemId = lostItemId;
+    }
+    
+    public String getLostItemTitle() {
+        return lostItemTitle;
+    }
+    
+    public void setLostItemTitle(String lostItemTitle) {
+        this.lostItemTitle = lostItemTitle;
+    }
+    
+    public String getLostItemDescription() {
+        return lostItemDescription;
+    }
+    
+    public void setLostItemDescription(String lostItemDescription) {
+        this.lostItemDescription = lostItemDescription;
+    }
+    
+    public String getLostItemCategory() {
+        return lostItemCategory;
+    }
+    
+    public void setLostItemCategory(String lostItemCategory) {
+        this.lostItemCategory = lostItemCategory;
+    }
+    
+    public String getLostItemLocation() {
+        return lostItemLocation;
+    }
+    
+    public void setLostItemLocation(String lostItemLocation) {
+        this.lostItemLocation = lostItemLocation;
+    }
+    
+    public LocalDateTime getLostItemDate() {
+        return lostItemDate;
+    }
+    
+    public void setLostItemDate(LocalDateTime lostItemDate) {
+        this.lostItemDate = lostItemDate;
+    }
+    
+    public String getLostItemImagePath() {
+        return lostItemImagePath;
+    }
+    
+    public void setLostItemImagePath(String lostItemImagePath) {
+        this.lostItemImagePath = lostItemImagePath;
+    }
+    
+    public LocalDateTime getLostItemCreatedAt() {
+        return lostItemCreatedAt;
+    }
+    
+    public void setLostItemCreatedAt(LocalDateTime lostItemCreatedAt) {
+        this.lostItemCreatedAt = lostItemCreatedAt;
+    }
+    
+    public String getLostByUserName() {
+        return lostByUserName;
+    }
+    
+    public void setLostByUserName(String lostByUserName) {
+        this.lostByUserName = lostByUserName;
+    }
+    
+    public String getLostByUserEmail() {
+        return lostByUserEmail;
+    }
+    
+    public void setLostByUserEmail(String lostByUserEmail) {
+        this.lostByUserEmail = lostByUserEmail;
+    }
+    
+    public String getLostByUserPhone() {
+        return lostByUserPhone;
+    }
+    
+    public void setLostByUserPhone(String lostByUserPhone) {
+        this.lostByUserPhone = lostByUserPhone;
+    }
+    
+    public Double getMatchScore() {
+        return matchScore;
+    }
+    
+    public void setMatchScore(Double matchScore) {
+        this.matchScore = matchScore;
+    }
+    
+    public Double getTextSimilarity() {
+        return textSimilarity;
+    }
+    
+    public void setTextSimilarity(Double textSimilarity) {
+        this.textSimilarity = textSimilarity;
+    }
+    
+    public Double getLocationScore() {
+        return locationScore;
+    }
+    
+    public void setLocationScore(Double locationScore) {
+        this.locationScore = locationScore;
+    }
+    
+    public Double getDateScore() {
+        return dateScore;
+    }
+    
+    public void setDateScore(Double dateScore) {
+        this.dateScore = dateScore;
+    }
+}
@@ -1,5 +1,9 @@
 package com.myorg.lostfound.dto;
 
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 /**
@@ -14,6 +18,31 @@ public class MatchRequestDto {
     private Integer daysBefore;
     private Integer daysAfter;
     
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 100, message = "Limit must be at most 100")
+    private Integer limit;
+    
+    @DecimalMin(value = "0.0", message = "Minimum score must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Minimum score must be between 0 and 1")
+    private Double minScore;
+    
+    private CategoryMode categoryMode;
+    
+    // Candidate retriever to use instead of the configured one: "db", "hybrid" or "memory"
+    private String retriever;
+    
+    /**
+     * How candidate found items are selected by category
+     */
+    public enum CategoryMode {
+        /** Score found items of every category */
+        ALL,
+        /** Score only found items in the lost item's category */
+        SAME,
+        /** Score the lost item's category first, then related categories if it yields fewer matches than the limit */
+        RELATED
+    }
+    
     public MatchRequestDto() {}
     
     public MatchRequestDto(Long lostItemId) {
@@ -51,4 +80,36 @@ public class MatchRequestDto {
     public void setDaysAfter(Integer daysAfter) {
         this.daysAfter = daysAfter;
     }
+    
+    public Integer getLimit() {
+        return limit;
+    }
+    
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+    
+    public Double getMinScore() {
+        return minScore;
+    }
+    
+    public void setMinScore(Double minScore) {
+        this.minScore = minScore;
+    }
+    
+    public CategoryMode getCategoryMode() {
+        return categoryMode;
+    }
+    
+    public void setCategoryMode(CategoryMode categoryMode) {
+        this.categoryMode = categoryMode;
+    }
+    
+    public String getRetriever() {
+        return retriever;
+    }
+    
+    public void setRetriever(String retriever) {
+        this.retriever = retriever;
+    }
 }
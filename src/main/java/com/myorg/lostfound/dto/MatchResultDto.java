@@ -27,6 +27,27 @@ public class MatchResultDto {
     
     public MatchResultDto() {}
     
+    /**
+     * Create a copy of another result
+     */
+    public MatchResultDto(MatchResultDto other) {
+        this.foundItemId = other.foundItemId;
+        this.foundItemTitle = other.foundItemTitle;
+        this.foundItemDescription = other.foundItemDescription;
+        this.foundItemCategory = other.foundItemCategory;
+        this.foundItemLocation = other.foundItemLocation;
+        this.foundItemDate = other.foundItemDate;
+        this.foundItemImagePath = other.foundItemImagePath;
+        this.foundItemCreatedAt = other.foundItemCreatedAt;
+        this.foundByUserName = other.foundByUserName;
+        this.foundByUserEmail = other.foundByUserEmail;
+        this.foundByUserPhone = other.foundByUserPhone;
+        this.matchScore = other.matchScore;
+        this.textSimilarity = other.textSimilarity;
+        this.locationScore = other.locationScore;
+        this.dateScore = other.dateScore;
+    }
+    
     public Long getFoundItemId() {
         return foundItemId;
     }
@@ -0,0 +1,82 @@
+package com.myorg.lostfound.dto;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * DTO for reverse match requests, ranking lost items against a found item
+ */
+public class ReverseMatchRequestDto {
+    
+    @NotNull(message = "Found item ID is required")
+    private Long foundItemId;
+    
+    private String locationFilter;
+    private Integer daysBefore;
+    private Integer daysAfter;
+    
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 100, message = "Limit must be at most 100")
+    private Integer limit;
+    
+    @DecimalMin(value = "0.0", message = "Minimum score must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Minimum score must be between 0 and 1")
+    private Double minScore;
+    
+    public ReverseMatchRequestDto() {}
+    
+    public ReverseMatchRequestDto(Long foundItemId) {
+        this.foundItemId = foundItemId;
+    }
+    
+    public Long getFoundItemId() {
+        return foundItemId;
+    }
+    
+    public void setFoundItemId(Long foundItemId) {
+        this.foundItemId = foundItemId;
+    }
+    
+    public String getLocationFilter() {
+        return locationFilter;
+    }
+    
+    public void setLocationFilter(String locationFilter) {
+        this.locationFilter = locationFilter;
+    }
+    
+    public Integer getDaysBefore() {
+        return daysBefore;
+    }
+    
+    public void setDaysBefore(Integer daysBefore) {
+        this.daysBefore = daysBefore;
+    }
+    
+    public Integer getDaysAfter() {
+        return daysAfter;
+    }
+    
+    public void setDaysAfter(Integer daysAfter) {
+        this.daysAfter = daysAfter;
+    }
+    
+    public Integer getLimit() {
+        return limit;
+    }
+    
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+    
+    public Double getMinScore() {
+        return minScore;
+    }
+    
+    public void setMinScore(Double minScore) {
+        this.minScore = minScore;
+    }
+}
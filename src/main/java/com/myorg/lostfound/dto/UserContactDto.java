@@ -0,0 +1,53 @@
+package com.myorg.lostfound.dto;
+
+/**
+ * DTO for the contact details of the user who reported an item, selected by item id in one query
+ */
+public class UserContactDto {
+    
+    private Long itemId;
+    private String name;
+    private String email;
+    private String phone;
+    
+    public UserContactDto() {}
+    
+    public UserContactDto(Long itemId, String name, String email, String phone) {
+        this.itemId = itemId;
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+    }
+    
+    public Long getItemId() {
+        return itemId;
+    }
+    
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public String getPhone() {
+        return phone;
+    }
+    
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+}
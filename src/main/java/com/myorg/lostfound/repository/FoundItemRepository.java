@@ -1,5 +1,7 @@
 package com.myorg.lostfound.repository;
 
+import com.myorg.lostfound.dto.FoundItemCandidateDto;
+import com.myorg.lostfound.dto.UserContactDto;
 import com.myorg.lostfound.model.FoundItem;
 import com.myorg.lostfound.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -67,12 +70,87 @@ public interface FoundItemRepository extends JpaRepository<FoundItem, Long> {
     @Query("SELECT fi FROM FoundItem fi WHERE fi.category = :category AND fi.location LIKE %:location%")
     List<FoundItem> findByCategoryAndLocation(@Param("category") String category, @Param("location") String location);
 
+    /**
+     * Find found items in the given categories (trimmed, lower case) by date range
+     */
+    @Query("SELECT fi FROM FoundItem fi WHERE LOWER(TRIM(fi.category)) IN :categories AND fi.date BETWEEN :startDate AND :endDate")
+    List<FoundItem> findByCategoriesAndDateBetween(@Param("categories") Collection<String> categories,
+                                                   @Param("startDate") LocalDateTime startDate,
+                                                   @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Find found items in the given categories (trimmed, lower case) by location and date range
+     */
+    @Query("SELECT fi FROM FoundItem fi WHERE LOWER(TRIM(fi.category)) IN :categories "
+            + "AND LOWER(fi.location) LIKE LOWER(CONCAT('%', :location, '%')) AND fi.date BETWEEN :startDate AND :endDate")
+    List<FoundItem> findByCategoriesAndLocationAndDateBetween(@Param("categories") Collection<String> categories,
+                                                              @Param("location") String location,
+                                                              @Param("startDate") LocalDateTime startDate,
+                                                              @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Find the scoring fields of the found items in a date range
+     */
+    @Query("SELECT new com.myorg.lostfound.dto.FoundItemCandidateDto(fi.id, fi.category, fi.description, fi.location, fi.date) "
+            + "FROM FoundItem fi WHERE fi.date BETWEEN :startDate AND :endDate")
+    List<FoundItemCandidateDto> findCandidatesByDateBetween(@Param("startDate") LocalDateTime startDate,
+                                                            @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Find the scoring fields of the found items by location (case insensitive) and date range
+     */
+    @Query("SELECT new com.myorg.lostfound.dto.FoundItemCandidateDto(fi.id, fi.category, fi.description, fi.location, fi.date) "
+            + "FROM FoundItem fi WHERE LOWER(fi.location) LIKE LOWER(CONCAT('%', :location, '%')) "
+            + "AND fi.date BETWEEN :startDate AND :endDate")
+    List<FoundItemCandidateDto> findCandidatesByLocationAndDateBetween(@Param("location") String location,
+                                                                       @Param("startDate") LocalDateTime startDate,
+                                                                       @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Find the scoring fields of the found items in the given categories (trimmed, lower case) by date range
+     */
+    @Query("SELECT new com.myorg.lostfound.dto.FoundItemCandidateDto(fi.id, fi.category, fi.description, fi.location, fi.date) "
+            + "FROM FoundItem fi WHERE LOWER(TRIM(fi.category)) IN :categories AND fi.date BETWEEN :startDate AND :endDate")
+    List<FoundItemCandidateDto> findCandidatesByCategoriesAndDateBetween(@Param("categories") Collection<String> categories,
+                                                                         @Param("startDate") LocalDateTime startDate,
+                                                                         @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Find the scoring fields of the found items in the given categories (trimmed, lower case) by location
+     * and date range
+     */
+    @Query("SELECT new com.myorg.lostfound.dto.FoundItemCandidateDto(fi.id, fi.category, fi.description, fi.location, fi.date) "
+            + "FROM FoundItem fi WHERE LOWER(TRIM(fi.category)) IN :categories "
+            + "AND LOWER(fi.location) LIKE LOWER(CONCAT('%', :location, '%')) AND fi.date BETWEEN :startDate AND :endDate")
+    List<FoundItemCandidateDto> findCandidatesByCategoriesAndLocationAndDateBetween(
+            @Param("categories") Collection<String> categories, @Param("location") String location,
+            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
     /**
      * Find recent found items (created within last N days)
      */
     @Query("SELECT fi FROM FoundItem fi WHERE fi.createdAt >= :date")
     List<FoundItem> findRecentFoundItems(@Param("date") LocalDateTime date);
 
+    /**
+     * Find found items created or modified after a specific time (rows without updated_at fall back to created_at)
+     */
+    @Query("SELECT fi FROM FoundItem fi WHERE COALESCE(fi.updatedAt, fi.createdAt) > :since")
+    List<FoundItem> findModifiedAfter(@Param("since") LocalDateTime since);
+
+    /**
+     * Find the ids of all found items
+     */
+    @Query("SELECT fi.id FROM FoundItem fi")
+    List<Long> findAllIds();
+
+    /**
+     * Find the contact details of the users who reported the given found items, in a single query
+     */
+    @Query("SELECT new com.myorg.lostfound.dto.UserContactDto(fi.id, u.name, u.email, u.phone) "
+            + "FROM FoundItem fi JOIN fi.user u WHERE fi.id IN :ids")
+    List<UserContactDto> findUserContactsByIdIn(@Param("ids") Collection<Long> ids);
+
     /**
      * Count found items by user
      */
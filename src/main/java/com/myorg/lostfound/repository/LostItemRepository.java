@@ -1,5 +1,6 @@
 package com.myorg.lostfound.repository;
 
+import com.myorg.lostfound.dto.UserContactDto;
 import com.myorg.lostfound.model.LostItem;
 import com.myorg.lostfound.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -51,6 +53,16 @@ public interface LostItemRepository extends JpaRepository<LostItem, Long> {
      */
     List<LostItem> findByDateBefore(LocalDateTime date);
 
+    /**
+     * Find lost items by date range
+     */
+    List<LostItem> findByDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Find lost items by location and date range
+     */
+    List<LostItem> findByLocationContainingIgnoreCaseAndDateBetween(String location, LocalDateTime startDate, LocalDateTime endDate);
+
     /**
      * Find lost items by category and location
      */
@@ -63,6 +75,42 @@ public interface LostItemRepository extends JpaRepository<LostItem, Long> {
     @Query("SELECT li FROM LostItem li WHERE li.createdAt >= :date")
     List<LostItem> findRecentLostItems(@Param("date") LocalDateTime date);
 
+    /**
+     * Find lost items in the half-open date range [startDate, endDate)
+     */
+    List<LostItem> findByDateGreaterThanEqualAndDateLessThan(LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Find the earliest lost date
+     */
+    @Query("SELECT MIN(li.date) FROM LostItem li")
+    LocalDateTime findMinDate();
+
+    /**
+     * Find the latest lost date
+     */
+    @Query("SELECT MAX(li.date) FROM LostItem li")
+    LocalDateTime findMaxDate();
+
+    /**
+     * Find lost items created or modified after a specific time (rows without updated_at fall back to created_at)
+     */
+    @Query("SELECT li FROM LostItem li WHERE COALESCE(li.updatedAt, li.createdAt) > :since")
+    List<LostItem> findModifiedAfter(@Param("since") LocalDateTime since);
+
+    /**
+     * Find the ids of all lost items
+     */
+    @Query("SELECT li.id FROM LostItem li")
+    List<Long> findAllIds();
+
+    /**
+     * Find the contact details of the users who reported the given lost items, in a single query
+     */
+    @Query("SELECT new com.myorg.lostfound.dto.UserContactDto(li.id, u.name, u.email, u.phone) "
+            + "FROM LostItem li JOIN li.user u WHERE li.id IN :ids")
+    List<UserContactDto> findUserContactsByIdIn(@Param("ids") Collection<Long> ids);
+
     /**
      * Count lost items by user
      */
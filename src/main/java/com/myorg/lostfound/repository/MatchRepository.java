@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -97,4 +98,36 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
      */
     @Query("SELECT m FROM Match m JOIN m.foundItem fi WHERE fi.user.id = :userId")
     List<Match> findMatchesForFoundItemUser(@Param("userId") Long userId);
+
+    /**
+     * Find matches for a lost item with their found items and finders loaded, best score first
+     */
+    @Query("SELECT m FROM Match m JOIN FETCH m.foundItem fi LEFT JOIN FETCH fi.user WHERE m.lostItem.id = :lostItemId ORDER BY m.matchScore DESC")
+    List<Match> findByLostItemIdWithFoundItem(@Param("lostItemId") Long lostItemId);
+
+    /**
+     * Find the matches of a lost item in one of the given statuses with their found items and finders loaded,
+     * best score first
+     */
+    @Query("SELECT m FROM Match m JOIN FETCH m.foundItem fi LEFT JOIN FETCH fi.user WHERE m.lostItem.id = :lostItemId AND m.status IN :statuses ORDER BY m.matchScore DESC")
+    List<Match> findByLostItemIdAndStatusInWithFoundItem(@Param("lostItemId") Long lostItemId,
+                                                         @Param("statuses") Collection<Match.MatchStatus> statuses);
+
+    /**
+     * Find the ids of lost items having at least one match in one of the given statuses
+     */
+    @Query("SELECT DISTINCT m.lostItem.id FROM Match m WHERE m.status IN :statuses")
+    List<Long> findLostItemIdsWithStatusIn(@Param("statuses") Collection<Match.MatchStatus> statuses);
+
+    /**
+     * Find which of the given lost items have at least one match in one of the given statuses
+     */
+    @Query("SELECT DISTINCT m.lostItem.id FROM Match m WHERE m.lostItem.id IN :lostItemIds AND m.status IN :statuses")
+    List<Long> findLostItemIdsWithStatusIn(@Param("lostItemIds") Collection<Long> lostItemIds,
+                                           @Param("statuses") Collection<Match.MatchStatus> statuses);
+
+    /**
+     * Find the matches of the given lost items in a status
+     */
+    List<Match> findByLostItemIdInAndStatus(Collection<Long> lostItemIds, Match.MatchStatus status);
 }
@@ -0,0 +1,38 @@
+package com.myorg.lostfound.service;
+
+import com.myorg.lostfound.dto.FoundItemCandidateDto;
+import com.myorg.lostfound.model.LostItem;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Strategy for selecting the found items worth scoring against a lost item.
+ * Candidates carry only the fields scoring reads; the matches that make the top K are loaded in full afterwards.
+ * Implementations are Spring beans looked up by {@link #getName()}: the deployment default comes from
+ * app.match.candidate-retriever and a match request can override it with its retriever field.
+ */
+public interface CandidateRetriever {
+    
+    /**
+     * Get the name the retriever is selected by
+     */
+    String getName();
+    
+    /**
+     * Find the candidate found items of a lost item
+     * 
+     * @param lostItem Lost item to match
+     * @param startDate Start of the date window, inclusive
+     * @param endDate End of the date window, inclusive
+     * @param locationFilter Location the found items must contain, or null
+     * @param categories Normalized categories to restrict the candidates to, or null for every category
+     * @param snapshot Published match index snapshot, or null if none has been published yet
+     * @param limit Number of matches requested, for retrievers that widen their search when too few qualify
+     * @return Candidate found items, in no particular order
+     */
+    List<FoundItemCandidateDto> findCandidates(LostItem lostItem, LocalDateTime startDate, LocalDateTime endDate,
+                                               String locationFilter, Collection<String> categories,
+                                               MatchIndexSnapshot snapshot, int limit);
+}
@@ -0,0 +1,60 @@
+package com.myorg.lostfound.service;
+
+import com.myorg.lostfound.dto.FoundItemCandidateDto;
+import com.myorg.lostfound.model.LostItem;
+import com.myorg.lostfound.repository.FoundItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Candidate retriever answering the date, location and category filters with a database query.
+ * Every found item in the window is returned, so the whole window gets scored; only the scoring fields are selected.
+ */
+@Service
+public class DatabaseCandidateRetriever implements CandidateRetriever {
+    
+    public static final String NAME = "db";
+    
+    @Autowired
+    private FoundItemRepository foundItemRepository;
+    
+    @Override
+    public String getName() {
+        return NAME;
+    }
+    
+    @Override
+    public List<FoundItemCandidateDto> findCandidates(LostItem lostItem, LocalDateTime startDate,
+                                                      LocalDateTime endDate, String locationFilter,
+                                                      Collection<String> categories, MatchIndexSnapshot snapshot,
+                                                      int limit) {
+        if (categories == null) {
+            return findInWindow(locationFilter, startDate, endDate);
+        }
+        
+        if (locationFilter != null && !locationFilter.trim().isEmpty()) {
+            return foundItemRepository.findCandidatesByCategoriesAndLocationAndDateBetween(
+                    categories, locationFilter, startDate, endDate);
+        } else {
+            return foundItemRepository.findCandidatesByCategoriesAndDateBetween(categories, startDate, endDate);
+        }
+    }
+    
+    /**
+     * Query found items in a date range, optionally filtered by location
+     */
+    public List<FoundItemCandidateDto> findInWindow(String locationFilter, LocalDateTime startDate,
+                                                    LocalDateTime endDate) {
+        if (locationFilter != null && !locationFilter.trim().isEmpty()) {
+            // Filter by location and date range
+            return foundItemRepository.findCandidatesByLocationAndDateBetween(locationFilter, startDate, endDate);
+        } else {
+            // Filter only by date range
+            return foundItemRepository.findCandidatesByDateBetween(startDate, endDate);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.myorg.lostfound.service;
+
+import com.myorg.lostfound.dto.FoundItemCandidateDto;
+import com.myorg.lostfound.model.LostItem;
+import com.myorg.lostfound.util.Tokenizer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Candidate retriever answering the filters with a database query and the text with the in-memory term index:
+ * found items of the window that share no term with the lost item are dropped before scoring.
+ */
+@Service
+public class HybridCandidateRetriever implements CandidateRetriever {
+    
+    public static final String NAME = "hybrid";
+    
+    @Autowired
+    private DatabaseCandidateRetriever databaseCandidateRetriever;
+    
+    @Override
+    public String getName() {
+        return NAME;
+    }
+    
+    @Override
+    public List<FoundItemCandidateDto> findCandidates(LostItem lostItem, LocalDateTime startDate,
+                                                      LocalDateTime endDate, String locationFilter,
+                                                      Collection<String> categories, MatchIndexSnapshot snapshot,
+                                                      int limit) {
+        List<FoundItemCandidateDto> candidates = databaseCandidateRetriever.findCandidates(lostItem, startDate, endDate,
+                locationFilter, categories, snapshot, limit);
+        
+        Set<String> queryTerms = Tokenizer.termSet(lostItem.getDescription());
+        if (snapshot == null || queryTerms.isEmpty()) {
+            // Nothing to prune on, every candidate has to be scored
+            return candidates;
+        }
+        
+        // Found items saved after the snapshot was built cannot be pruned and are always kept
+        Set<Long> matchingIds = categories != null
+                ? snapshot.searchFoundItems(queryTerms, categories)
+                : snapshot.searchFoundItems(queryTerms);
+        return candidates.stream()
+                .filter(candidate -> matchingIds.contains(candidate.getId())
+                        || !snapshot.containsFoundItem(candidate.getId()))
+                .collect(Collectors.toList());
+    }
+}
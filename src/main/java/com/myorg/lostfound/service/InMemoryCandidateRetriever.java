@@ -0,0 +1,98 @@
+package com.myorg.lostfound.service;
+
+import com.myorg.lostfound.dto.FoundItemCandidateDto;
+import com.myorg.lostfound.model.LostItem;
+import com.myorg.lostfound.util.Tokenizer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Candidate retriever answering the date window from the snapshot's time index and the text from its term
+ * and LSH indexes, without querying the database. Candidates carry the category, location and date stored in
+ * the snapshot but no description: their text is scored from the snapshot's vectors, and only the top K are
+ * loaded once ranked.
+ * When the LSH index is enabled, only likely-similar found items are taken, widened to every found item
+ * sharing a term when fewer than the limit fall in the window.
+ * Found items saved after the snapshot was built are picked up with the next snapshot; until a snapshot
+ * is published the hybrid retriever is used instead.
+ */
+@Service
+public class InMemoryCandidateRetriever implements CandidateRetriever {
+    
+    public static final String NAME = "memory";
+    
+    @Autowired
+    private HybridCandidateRetriever hybridCandidateRetriever;
+    
+    @Override
+    public String getName() {
+        return NAME;
+    }
+    
+    @Override
+    public List<FoundItemCandidateDto> findCandidates(LostItem lostItem, LocalDateTime startDate,
+                                                      LocalDateTime endDate, String locationFilter,
+                                                      Collection<String> categories, MatchIndexSnapshot snapshot,
+                                                      int limit) {
+        if (snapshot == null) {
+            return hybridCandidateRetriever.findCandidates(lostItem, startDate, endDate, locationFilter, categories,
+                    null, limit);
+        }
+        
+        List<Long> windowIds = snapshot.findFoundItemsInWindow(startDate, endDate);
+        
+        Set<String> queryTerms = Tokenizer.termSet(lostItem.getDescription());
+        List<Long> candidateIds;
+        if (queryTerms.isEmpty()) {
+            // Nothing to prune on, every found item of the window has to be scored
+            candidateIds = selectCandidateIds(windowIds, null, categories, snapshot);
+        } else {
+            candidateIds = null;
+            if (snapshot.hasFoundItemSimilarityIndex()) {
+                candidateIds = selectCandidateIds(windowIds, snapshot.searchSimilarFoundItems(queryTerms),
+                        categories, snapshot);
+            }
+            if (candidateIds == null || candidateIds.size() < limit) {
+                Set<Long> matchingIds = categories != null
+                        ? snapshot.searchFoundItems(queryTerms, categories)
+                        : snapshot.searchFoundItems(queryTerms);
+                candidateIds = selectCandidateIds(windowIds, matchingIds, categories, snapshot);
+            }
+        }
+        if (candidateIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        String location = locationFilter != null && !locationFilter.trim().isEmpty()
+                ? locationFilter.toLowerCase() : null;
+        List<FoundItemCandidateDto> candidates = new ArrayList<>(candidateIds.size());
+        for (Long id : candidateIds) {
+            String foundItemLocation = snapshot.getFoundItemLocation(id);
+            if (location != null
+                    && (foundItemLocation == null || !foundItemLocation.toLowerCase().contains(location))) {
+                continue;
+            }
+            candidates.add(new FoundItemCandidateDto(id, snapshot.getFoundItemCategory(id), null, foundItemLocation,
+                    snapshot.getFoundItemDate(id)));
+        }
+        return candidates;
+    }
+    
+    /**
+     * Keep the window ids contained in the matching ids (all when null) and in the given categories (all when null)
+     */
+    private List<Long> selectCandidateIds(List<Long> windowIds, Set<Long> matchingIds,
+                                          Collection<String> categories, MatchIndexSnapshot snapshot) {
+        List<Long> candidateIds = new ArrayList<>();
+        for (Long id : windowIds) {
+            if ((matchingIds == null || matchingIds.contains(id))
+                    && (categories == null || categories.contains(snapshot.getFoundItemCategory(id)))) {
+                candidateIds.add(id);
+            }
+        }
+        return candidateIds;
+    }
+}
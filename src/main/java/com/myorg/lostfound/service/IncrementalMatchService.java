@@ -0,0 +1,188 @@
+package com.myorg.lostfound.service;
+
+import com.myorg.lostfound.dto.BatchMatchRequestDto;
+import com.myorg.lostfound.dto.LostItemMatchResultDto;
+import com.myorg.lostfound.dto.ReverseMatchRequestDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Service computing and storing matches for newly created lost and found items in the background.
+ *
+ * Item ids are collected in pending sets, so repeated events for the same item collapse into one.
+ * A drain runs a short delay after the first event of a burst and hands the collected ids to the
+ * bounded match worker pool: lost items in batches, found items one by one in the reverse direction.
+ * Callers only add an id to a set and never wait for scoring.
+ */
+@Service
+public class IncrementalMatchService {
+    
+    @Autowired
+    private MatchService matchService;
+    
+    @Autowired
+    private MatchStoreService matchStoreService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    @Qualifier("matchIncrementalExecutor")
+    private ThreadPoolTaskExecutor matchIncrementalExecutor;
+    
+    @Value("${app.match.incremental.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.match.incremental.delay-ms:2000}")
+    private long delayMs;
+    
+    @Value("${app.match.incremental.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${app.match.incremental.max-pending:10000}")
+    private int maxPending;
+    
+    @Value("${app.match.incremental.days-before:7}")
+    private int daysBefore;
+    
+    @Value("${app.match.incremental.days-after:30}")
+    private int daysAfter;
+    
+    @Value("${app.match.incremental.limit:10}")
+    private int limit;
+    
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "match-incremental-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final Set<Long> pendingLostItemIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingFoundItemIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    
+    /**
+     * Queue matching of a newly created lost item against the found items
+     */
+    public void onLostItemCreated(Long lostItemId) {
+        enqueue(pendingLostItemIds, lostItemId);
+    }
+    
+    /**
+     * Queue matching of a newly created found item against the lost items
+     */
+    public void onFoundItemCreated(Long foundItemId) {
+        enqueue(pendingFoundItemIds, foundItemId);
+    }
+    
+    /**
+     * Get the number of items waiting for the next drain
+     */
+    public int getPendingCount() {
+        return pendingLostItemIds.size() + pendingFoundItemIds.size();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+    
+    private void enqueue(Set<Long> pending, Long itemId) {
+        if (!enabled || itemId == null) {
+            return;
+        }
+        
+        if (getPendingCount() >= maxPending) {
+            // The nightly precomputation picks up whatever is dropped here
+            System.err.println("Incremental match queue is full, skipping item " + itemId);
+            return;
+        }
+        
+        pending.add(itemId);
+        if (drainScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::drain, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * Hand all pending items to the worker pool (scheduler thread)
+     */
+    private void drain() {
+        // Reset first so ids added from now on schedule the next drain
+        drainScheduled.set(false);
+        
+        List<Long> lostItemIds = takeAll(pendingLostItemIds);
+        List<Long> foundItemIds = takeAll(pendingFoundItemIds);
+        
+        int chunkSize = Math.max(batchSize, 1);
+        for (int start = 0; start < lostItemIds.size(); start += chunkSize) {
+            List<Long> chunk = lostItemIds.subList(start, Math.min(start + chunkSize, lostItemIds.size()));
+            matchIncrementalExecutor.execute(() -> processLostItems(chunk));
+        }
+        // Lost items of this drain already score every committed found item, so the reverse pass skips them
+        Set<Long> drainedLostItemIds = new HashSet<>(lostItemIds);
+        for (Long foundItemId : foundItemIds) {
+            matchIncrementalExecutor.execute(() -> processFoundItem(foundItemId, drainedLostItemIds));
+        }
+    }
+    
+    private List<Long> takeAll(Set<Long> pending) {
+        List<Long> ids = new ArrayList<>();
+        Iterator<Long> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            ids.add(iterator.next());
+            iterator.remove();
+        }
+        return ids;
+    }
+    
+    private void processLostItems(List<Long> lostItemIds) {
+        try {
+            BatchMatchRequestDto request = new BatchMatchRequestDto(lostItemIds);
+            request.setDaysBefore(daysBefore);
+            request.setDaysAfter(daysAfter);
+            request.setLimit(limit);
+            
+            transactionTemplate.executeWithoutResult(status ->
+                    matchService.findMatchesBatch(request, matchStoreService::replacePendingMatches));
+        } catch (Exception e) {
+            System.err.println("Failed to compute matches for lost items " + lostItemIds + ": " + e.getMessage());
+        }
+    }
+    
+    private void processFoundItem(Long foundItemId, Set<Long> skippedLostItemIds) {
+        try {
+            // Mirror the lost item window: a lost item matches when the found item falls inside its window
+            ReverseMatchRequestDto request = new ReverseMatchRequestDto(foundItemId);
+            request.setDaysBefore(daysAfter);
+            request.setDaysAfter(daysBefore);
+            request.setLimit(limit);
+            
+            transactionTemplate.executeWithoutResult(status -> {
+                List<LostItemMatchResultDto> results = matchService.findLostItemMatches(request).stream()
+                        .filter(result -> !skippedLostItemIds.contains(result.getLostItemId()))
+                        .collect(Collectors.toList());
+                matchStoreService.addPendingMatches(foundItemId, results, limit);
+            });
+        } catch (Exception e) {
+            System.err.println("Failed to compute matches for found item " + foundItemId + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.myorg.lostfound.service;
+
+import com.myorg.lostfound.model.FoundItem;
+import com.myorg.lostfound.model.LostItem;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener forwarding lost and found item changes to the match index, the match result cache
+ * and the incremental matcher.
+ * Changes are applied after the surrounding transaction commits so rolled back writes never reach the index.
+ * The listener is registered on the item entities in META-INF/orm.xml, keeping the model free of service imports.
+ */
+public class MatchIndexEntityListener {
+    
+    // Resolved lazily because listeners are created while the EntityManagerFactory is still being built
+    @Autowired
+    private ObjectProvider<MatchIndexService> matchIndexServiceProvider;
+    
+    @Autowired
+    private ObjectProvider<IncrementalMatchService> incrementalMatchServiceProvider;
+    
+    @Autowired
+    private ObjectProvider<MatchResultCache> matchResultCacheProvider;
+    
+    @PostPersist
+    public void onCreated(Object entity) {
+        onSaved(entity);
+        afterCommit(() -> {
+            IncrementalMatchService incrementalMatchService = incrementalMatchServiceProvider != null
+                    ? incrementalMatchServiceProvider.getIfAvailable() : null;
+            if (incrementalMatchService == null) {
+                return;
+            }
+            
+            if (entity instanceof LostItem) {
+                incrementalMatchService.onLostItemCreated(((LostItem) entity).getId());
+            } else if (entity instanceof FoundItem) {
+                incrementalMatchService.onFoundItemCreated(((FoundItem) entity).getId());
+            }
+        });
+    }
+    
+    @PostUpdate
+    public void onSaved(Object entity) {
+        afterCommit(() -> {
+            MatchResultCache matchResultCache = getMatchResultCache();
+            if (matchResultCache != null) {
+                if (entity instanceof LostItem) {
+                    matchResultCache.invalidateLostItem(((LostItem) entity).getId());
+                } else if (entity instanceof FoundItem) {
+                    matchResultCache.invalidateFoundItem(((FoundItem) entity).getId(), ((FoundItem) entity).getDate());
+                }
+            }
+            
+            MatchIndexService matchIndexService = getMatchIndexService();
+            if (matchIndexService == null) {
+                return;
+            }
+            
+            if (entity instanceof LostItem) {
+                matchIndexService.onLostItemSaved((LostItem) entity);
+            } else if (entity instanceof FoundItem) {
+                matchIndexService.onFoundItemSaved((FoundItem) entity);
+            }
+        });
+    }
+    
+    @PostRemove
+    public void onRemoved(Object entity) {
+        afterCommit(() -> {
+            MatchResultCache matchResultCache = getMatchResultCache();
+            if (matchResultCache != null) {
+                if (entity instanceof LostItem) {
+                    matchResultCache.invalidateLostItem(((LostItem) entity).getId());
+                } else if (entity instanceof FoundItem) {
+                    matchResultCache.invalidateFoundItem(((FoundItem) entity).getId(), null);
+                }
+            }
+            
+            MatchIndexService matchIndexService = getMatchIndexService();
+            if (matchIndexService == null) {
+                return;
+            }
+            
+            if (entity instanceof LostItem) {
+                matchIndexService.onLostItemRemoved(((LostItem) entity).getId());
+            } else if (entity instanceof FoundItem) {
+                matchIndexService.onFoundItemRemoved(((FoundItem) entity).getId());
+            }
+        });
+    }
+    
+    private MatchIndexService getMatchIndexService() {
+        return matchIndexServiceProvider != null ? matchIndexServiceProvider.getIfAvailable() : null;
+    }
+    
+    private MatchResultCache getMatchResultCache() {
+        return matchResultCacheProvider != null ? matchResultCacheProvider.getIfAvailable() : null;
+    }
+    
+    /**
+     * Run the action once the current transaction commits, or immediately when there is none
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
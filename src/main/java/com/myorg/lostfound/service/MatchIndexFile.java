@@ -0,0 +1,272 @@
+package com.myorg.lostfound.service;
+
+import com.myorg.lostfound.util.SparseVector;
+import com.myorg.lostfound.util.TextVectorizer;
+import com.myorg.lostfound.util.Vocabulary;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Versioned binary file holding the builder state of the match index, so startup can skip loading every item.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * int    magic, int format version
+ * long   watermark seconds (UTC), int watermark nanos
+ * int    total documents
+ * int    term count, then per term: int UTF-8 length, bytes, int document frequency, double IDF
+ * lost items, then found items, each as:
+ *        int item count, then per item: long id, int UTF-8 length, category bytes,
+ *        byte dated, [long date seconds (UTC), int date nanos],
+ *        byte located, [int UTF-8 length, location bytes], byte counted,
+ *        int entries, entries x (int term id, float count)
+ * long   CRC32 of everything above
+ * </pre>
+ * Per-item term counts are stored instead of TF-IDF vectors because vectors depend on the IDF values,
+ * which change with every item; vectors and term postings are derived from the counts on load.
+ * Files are read through a read-only memory mapping and written to a temporary file that replaces the old one.
+ */
+final class MatchIndexFile {
+    
+    private static final int MAGIC = 0x4C464958;
+    private static final int FORMAT_VERSION = 4;
+    
+    private MatchIndexFile() {
+    }
+    
+    /**
+     * Builder state stored in the file: every indexed item with its category shard, term counts for items
+     * with a description, and the dates and locations of the found items for scoring without the database.
+     * Items without a description are indexed but not counted as documents.
+     */
+    static final class Contents {
+        final LocalDateTime watermark;
+        final TextVectorizer vectorizer;
+        final Map<Long, String> lostItemCategories;
+        final Map<Long, SparseVector> lostTermCounts;
+        final Map<Long, String> foundItemCategories;
+        final Map<Long, SparseVector> foundTermCounts;
+        final Map<Long, LocalDateTime> foundItemDates;
+        final Map<Long, String> foundItemLocations;
+        
+        Contents(LocalDateTime watermark, TextVectorizer vectorizer,
+                 Map<Long, String> lostItemCategories, Map<Long, SparseVector> lostTermCounts,
+                 Map<Long, String> foundItemCategories, Map<Long, SparseVector> foundTermCounts,
+                 Map<Long, LocalDateTime> foundItemDates, Map<Long, String> foundItemLocations) {
+            this.watermark = watermark;
+            this.vectorizer = vectorizer;
+            this.lostItemCategories = lostItemCategories;
+            this.lostTermCounts = lostTermCounts;
+            this.foundItemCategories = foundItemCategories;
+            this.foundTermCounts = foundTermCounts;
+            this.foundItemDates = foundItemDates;
+            this.foundItemLocations = foundItemLocations;
+        }
+    }
+    
+    /**
+     * Write the contents to the path, replacing any previous file atomically
+     */
+    static void write(Path path, Contents contents) throws IOException {
+        Path absolute = path.toAbsolutePath();
+        if (absolute.getParent() != null) {
+            Files.createDirectories(absolute.getParent());
+        }
+        
+        Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream file = Files.newOutputStream(temporary)) {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), crc));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(contents.watermark.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(contents.watermark.getNano());
+            out.writeInt(contents.vectorizer.getTotalDocuments());
+            
+            Vocabulary vocabulary = contents.vectorizer.getVocabulary();
+            out.writeInt(vocabulary.size());
+            for (int termId = 0; termId < vocabulary.size(); termId++) {
+                writeString(out, vocabulary.getTerm(termId));
+                out.writeInt(vocabulary.getDocumentFrequency(termId));
+                out.writeDouble(vocabulary.getIdf(termId));
+            }
+            
+            writeItems(out, contents.lostItemCategories, contents.lostTermCounts,
+                    Collections.emptyMap(), Collections.emptyMap());
+            writeItems(out, contents.foundItemCategories, contents.foundTermCounts,
+                    contents.foundItemDates, contents.foundItemLocations);
+            
+            // The checksum itself is written past the checked stream
+            out.flush();
+            DataOutputStream trailer = new DataOutputStream(file);
+            trailer.writeLong(crc.getValue());
+            trailer.flush();
+        }
+        Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Read the file through a read-only memory mapping
+     * 
+     * @throws IOException if the file cannot be read, is corrupt or has another format version
+     */
+    static Contents read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Long.BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Unexpected match index file size " + size);
+            }
+            
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int bodyLength = (int) size - Long.BYTES;
+            CRC32 crc = new CRC32();
+            ByteBuffer body = buffer.duplicate();
+            body.limit(bodyLength);
+            crc.update(body);
+            if (crc.getValue() != buffer.getLong(bodyLength)) {
+                throw new IOException("Match index file checksum mismatch");
+            }
+            
+            buffer.limit(bodyLength);
+            try {
+                return readContents(buffer);
+            } catch (RuntimeException e) {
+                throw new IOException("Malformed match index file: " + e.getMessage(), e);
+            }
+        }
+    }
+    
+    private static Contents readContents(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a match index file");
+        }
+        int formatVersion = buffer.getInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported match index file version " + formatVersion);
+        }
+        
+        LocalDateTime watermark = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+        int totalDocuments = buffer.getInt();
+        
+        int termCount = buffer.getInt();
+        String[] terms = new String[termCount];
+        int[] documentFrequency = new int[termCount];
+        double[] idf = new double[termCount];
+        for (int termId = 0; termId < termCount; termId++) {
+            terms[termId] = readString(buffer);
+            documentFrequency[termId] = buffer.getInt();
+            idf[termId] = buffer.getDouble();
+        }
+        TextVectorizer vectorizer = TextVectorizer.restore(
+                Vocabulary.restore(terms, documentFrequency, idf), totalDocuments);
+        
+        Map<Long, String> lostItemCategories = new HashMap<>();
+        Map<Long, SparseVector> lostTermCounts = new HashMap<>();
+        readItems(buffer, lostItemCategories, lostTermCounts, new HashMap<>(), new HashMap<>());
+        
+        Map<Long, String> foundItemCategories = new HashMap<>();
+        Map<Long, SparseVector> foundTermCounts = new HashMap<>();
+        Map<Long, LocalDateTime> foundItemDates = new HashMap<>();
+        Map<Long, String> foundItemLocations = new HashMap<>();
+        readItems(buffer, foundItemCategories, foundTermCounts, foundItemDates, foundItemLocations);
+        
+        return new Contents(watermark, vectorizer, lostItemCategories, lostTermCounts,
+                foundItemCategories, foundTermCounts, foundItemDates, foundItemLocations);
+    }
+    
+    private static void writeItems(DataOutputStream out, Map<Long, String> itemCategories,
+                                   Map<Long, SparseVector> termCounts,
+                                   Map<Long, LocalDateTime> itemDates,
+                                   Map<Long, String> itemLocations) throws IOException {
+        out.writeInt(itemCategories.size());
+        for (Map.Entry<Long, String> item : itemCategories.entrySet()) {
+            Long id = item.getKey();
+            SparseVector counts = termCounts.get(id);
+            out.writeLong(id);
+            writeString(out, item.getValue());
+            
+            LocalDateTime date = itemDates.get(id);
+            out.writeByte(date != null ? 1 : 0);
+            if (date != null) {
+                out.writeLong(date.toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(date.getNano());
+            }
+            
+            String location = itemLocations.get(id);
+            out.writeByte(location != null ? 1 : 0);
+            if (location != null) {
+                writeString(out, location);
+            }
+            
+            out.writeByte(counts != null ? 1 : 0);
+            
+            int entries = counts != null ? counts.size() : 0;
+            out.writeInt(entries);
+            for (int i = 0; i < entries; i++) {
+                out.writeInt(counts.indexAt(i));
+                out.writeFloat(counts.valueAt(i));
+            }
+        }
+    }
+    
+    private static void readItems(ByteBuffer buffer, Map<Long, String> itemCategories,
+                                  Map<Long, SparseVector> termCounts,
+                                  Map<Long, LocalDateTime> itemDates,
+                                  Map<Long, String> itemLocations) {
+        int itemCount = buffer.getInt();
+        for (int item = 0; item < itemCount; item++) {
+            long id = buffer.getLong();
+            String category = readString(buffer);
+            if (buffer.get() != 0) {
+                itemDates.put(id, LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC));
+            }
+            if (buffer.get() != 0) {
+                itemLocations.put(id, readString(buffer));
+            }
+            boolean counted = buffer.get() != 0;
+            int entries = buffer.getInt();
+            
+            int[] termIds = new int[entries];
+            float[] counts = new float[entries];
+            for (int i = 0; i < entries; i++) {
+                termIds[i] = buffer.getInt();
+                counts[i] = buffer.getFloat();
+            }
+            
+            itemCategories.put(id, category);
+            if (counted) {
+                termCounts.put(id, SparseVector.of(termIds, counts, entries));
+            }
+        }
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,696 @@
+package com.myorg.lostfound.service;
+
+import com.myorg.lostfound.model.FoundItem;
+import com.myorg.lostfound.model.LostItem;
+import com.myorg.lostfound.repository.FoundItemRepository;
+import com.myorg.lostfound.repository.LostItemRepository;
+import com.myorg.lostfound.util.CopyOnWriteHashMap;
+import com.myorg.lostfound.util.DayBucketTimeIndex;
+import com.myorg.lostfound.util.LshIndex;
+import com.myorg.lostfound.util.MinHash;
+import com.myorg.lostfound.util.ShardedInvertedIndex;
+import com.myorg.lostfound.util.SparseVector;
+import com.myorg.lostfound.util.TermUpperBounds;
+import com.myorg.lostfound.util.TextVectorizer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Service maintaining the TF-IDF statistics and the lost and found item term indexes used for matching,
+ * along with a day-bucketed time index of the found items that answers candidate date windows in memory
+ * and, when enabled, a MinHash/LSH index of the found items' term sets for likely-similar candidate lookups.
+ *
+ * All mutable state is confined to a single builder thread. Item changes are queued to that thread,
+ * and bursts of changes are coalesced into one immutable {@link MatchIndexSnapshot} that readers
+ * pick up through an atomic reference without ever blocking.
+ *
+ * Publishing costs little more than the changes themselves: snapshots share the unchanged parts of the builder's
+ * maps (see {@link CopyOnWriteHashMap}), so copying them is constant time and each change copies one trie path,
+ * and only the changed items are weighed, against IDF values frozen at the last refresh. What a publish still
+ * copies in full is small next to the corpus: the day table of the time index, one entry per shard, and the
+ * per-term bounds array when items changed. All items are reweighed with fresh IDF values once the items changed since
+ * then exceed app.match.index.idf-refresh-ratio of the corpus, so the refresh cost is amortized over those changes.
+ *
+ * The builder state is periodically saved to a {@link MatchIndexFile}. On startup the file is mapped
+ * and only the items modified since its watermark are read from the database.
+ *
+ * Every published snapshot also evicts the match result cache entries its changes can affect, since requests
+ * answered from the previous snapshot may have cached results that miss those changes.
+ *
+ * The index is built in the background once the application is ready, and {@link #isReady()} stays false
+ * until the first snapshot is published so that traffic can be held back from a cold node.
+ */
+@Service
+public class MatchIndexService {
+
+    private static final LocalDateTime NO_WATERMARK = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final long MIN_HASH_SEED = 0x4C534821L;
+
+    /**
+     * Lifecycle of the index build
+     */
+    public enum State {
+        NOT_STARTED,
+        LOADING,
+        READY,
+        FAILED
+    }
+
+    @Autowired
+    private LostItemRepository lostItemRepository;
+
+    @Autowired
+    private FoundItemRepository foundItemRepository;
+
+    @Autowired
+    private MatchResultCache matchResultCache;
+
+    @Value("${app.match.index.publish-delay-ms:500}")
+    private long publishDelayMs;
+
+    // Share of the corpus that may change before the frozen IDF values are recomputed and all items reweighed
+    @Value("${app.match.index.idf-refresh-ratio:0.05}")
+    private double idfRefreshRatio;
+
+    @Value("${app.match.index.file.enabled:true}")
+    private boolean fileEnabled;
+
+    @Value("${app.match.index.file.path:match-index.bin}")
+    private String filePath;
+
+    @Value("${app.match.index.file.write-interval-ms:600000}")
+    private long fileWriteIntervalMs;
+
+    @Value("${app.match.index.warm-up.enabled:true}")
+    private boolean warmUpEnabled;
+
+    @Value("${app.match.index.warm-up.retry-delay-ms:30000}")
+    private long warmUpRetryDelayMs;
+
+    @Value("${app.match.index.load-page-size:1000}")
+    private int loadPageSize;
+
+    @Value("${app.match.lsh.enabled:false}")
+    private boolean lshEnabled;
+
+    @Value("${app.match.lsh.bands:20}")
+    private int lshBands;
+
+    @Value("${app.match.lsh.rows:2}")
+    private int lshRows;
+
+    // Items modified this long before the watermark are re-read too, covering transactions that committed late
+    @Value("${app.match.index.file.overlap-ms:300000}")
+    private long fileOverlapMs;
+
+    private final ScheduledExecutorService builder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "match-index-builder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicReference<MatchIndexSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicBoolean initializationRequested = new AtomicBoolean(false);
+    private final AtomicLong loadedItemCount = new AtomicLong();
+    private final AtomicLong totalItemCount = new AtomicLong();
+    private volatile State state = State.NOT_STARTED;
+
+    // Builder thread state, never touched by readers
+    private TextVectorizer textVectorizer = new TextVectorizer();
+    private final ShardedInvertedIndex foundItemIndex = new ShardedInvertedIndex();
+    private final ShardedInvertedIndex lostItemIndex = new ShardedInvertedIndex();
+    private final Map<Long, SparseVector> lostTermCounts = new HashMap<>();
+    private final Map<Long, SparseVector> foundTermCounts = new HashMap<>();
+    private final DayBucketTimeIndex foundItemDates = new DayBucketTimeIndex();
+    private final CopyOnWriteHashMap<Long, String> foundItemLocations = new CopyOnWriteHashMap<>();
+    private MinHash minHash;
+    private LshIndex foundItemLsh;
+    private LocalDateTime watermark = NO_WATERMARK;
+    private boolean loaded = false;
+    // Changes received after a load was requested but before it completed, replayed once the load is done
+    private final List<Runnable> changesDuringLoad = new ArrayList<>();
+    private boolean publishScheduled = false;
+    private boolean changedSinceWrite = false;
+    // Items changed since the last publish, for the match result cache; found items map to their date (null if deleted)
+    private final Set<Long> pendingLostItemChanges = new HashSet<>();
+    private final Map<Long, LocalDateTime> pendingFoundItemChanges = new HashMap<>();
+    // Item vectors weighed with the IDF values of frozenVectorizer, kept up to date item by item between refreshes
+    private TextVectorizer frozenVectorizer;
+    private final CopyOnWriteHashMap<Long, SparseVector> foundItemVectors = new CopyOnWriteHashMap<>();
+    private final CopyOnWriteHashMap<Long, SparseVector> lostItemVectors = new CopyOnWriteHashMap<>();
+    private TermUpperBounds foundItemTermBounds;
+    private TermUpperBounds lostItemTermBounds;
+    private long changesSinceRefresh = 0;
+    private long version = 0;
+
+    /**
+     * Get the latest published snapshot, or null if the index has not been built yet
+     */
+    public MatchIndexSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Check whether the node can serve match traffic: the index has been published,
+     * or warm-up is disabled and the index is built lazily on the first request
+     */
+    public boolean isReady() {
+        return snapshot.get() != null || !warmUpEnabled;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Get the number of items read so far by the current or last load
+     */
+    public long getLoadedItemCount() {
+        return loadedItemCount.get();
+    }
+
+    /**
+     * Get the number of items the current or last load has to read, or 0 if not known yet
+     */
+    public long getTotalItemCount() {
+        return totalItemCount.get();
+    }
+
+    /**
+     * Start building the index in the background as soon as the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (warmUpEnabled) {
+            initialize();
+        }
+    }
+
+    /**
+     * Request the initial load of all lost and found items.
+     * Only the first call schedules a build; concurrent callers return immediately.
+     */
+    public void initialize() {
+        if (initializationRequested.compareAndSet(false, true)) {
+            builder.execute(this::load);
+        }
+    }
+
+    /**
+     * Record a created or updated lost item
+     */
+    public void onLostItemSaved(LostItem item) {
+        Long id = item.getId();
+        String category = item.getCategory();
+        String description = item.getDescription();
+        LocalDateTime modifiedAt = modifiedAt(item.getUpdatedAt(), item.getCreatedAt());
+        applyChange(() -> {
+            removeLostItem(id);
+            addLostItem(id, category, description);
+            pendingLostItemChanges.add(id);
+            advanceWatermark(modifiedAt);
+        });
+    }
+
+    /**
+     * Record a deleted lost item
+     */
+    public void onLostItemRemoved(Long lostItemId) {
+        applyChange(() -> {
+            removeLostItem(lostItemId);
+            pendingLostItemChanges.add(lostItemId);
+        });
+    }
+
+    /**
+     * Record a created or updated found item
+     */
+    public void onFoundItemSaved(FoundItem item) {
+        Long id = item.getId();
+        String category = item.getCategory();
+        String description = item.getDescription();
+        String location = item.getLocation();
+        LocalDateTime date = item.getDate();
+        LocalDateTime modifiedAt = modifiedAt(item.getUpdatedAt(), item.getCreatedAt());
+        applyChange(() -> {
+            removeFoundItem(id);
+            addFoundItem(id, category, description, location, date);
+            pendingFoundItemChanges.put(id, date);
+            advanceWatermark(modifiedAt);
+        });
+    }
+
+    /**
+     * Record a deleted found item
+     */
+    public void onFoundItemRemoved(Long foundItemId) {
+        applyChange(() -> {
+            removeFoundItem(foundItemId);
+            pendingFoundItemChanges.put(foundItemId, null);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+
+    /**
+     * Restore the index from the file or the database and publish the first snapshot (builder thread)
+     */
+    private void load() {
+        state = State.LOADING;
+        loadedItemCount.set(0);
+        totalItemCount.set(0);
+        try {
+            if (!restoreFromFile()) {
+                loadFromDatabase();
+            }
+
+            loaded = true;
+            // The load may have read some of these items before they were committed
+            for (Runnable change : changesDuringLoad) {
+                change.run();
+            }
+            changesDuringLoad.clear();
+            publish();
+            state = State.READY;
+            // Results cached before the first snapshot were ranked without the index
+            matchResultCache.clear();
+
+            if (fileEnabled) {
+                writeFile();
+                builder.scheduleWithFixedDelay(this::writeFile, fileWriteIntervalMs, fileWriteIntervalMs,
+                        TimeUnit.MILLISECONDS);
+            }
+        } catch (Exception e) {
+            // If initialization fails, matching falls back to simple text similarity and the next request retries
+            System.err.println("Failed to initialize match index: " + e.getMessage());
+            clearState();
+            // The next load reads these changes from the database
+            changesDuringLoad.clear();
+            state = State.FAILED;
+            initializationRequested.set(false);
+            if (warmUpEnabled) {
+                // Keep retrying in the background so the node eventually becomes ready
+                builder.schedule(this::initialize, warmUpRetryDelayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Read every item page by page, so progress can be reported and only one page is held in memory at a time
+     */
+    private void loadFromDatabase() {
+        clearState();
+        LocalDateTime loadStartedAt = LocalDateTime.now();
+        totalItemCount.set(lostItemRepository.count() + foundItemRepository.count());
+
+        int pageSize = Math.max(loadPageSize, 1);
+        Page<LostItem> lostPage;
+        int pageNumber = 0;
+        do {
+            lostPage = lostItemRepository.findAll(PageRequest.of(pageNumber++, pageSize, Sort.by("id")));
+            for (LostItem item : lostPage) {
+                addLostItem(item.getId(), item.getCategory(), item.getDescription());
+                advanceWatermark(modifiedAt(item.getUpdatedAt(), item.getCreatedAt()));
+            }
+            loadedItemCount.addAndGet(lostPage.getNumberOfElements());
+        } while (lostPage.hasNext());
+
+        Page<FoundItem> foundPage;
+        pageNumber = 0;
+        do {
+            foundPage = foundItemRepository.findAll(PageRequest.of(pageNumber++, pageSize, Sort.by("id")));
+            for (FoundItem item : foundPage) {
+                addFoundItem(item.getId(), item.getCategory(), item.getDescription(), item.getLocation(),
+                        item.getDate());
+                advanceWatermark(modifiedAt(item.getUpdatedAt(), item.getCreatedAt()));
+            }
+            loadedItemCount.addAndGet(foundPage.getNumberOfElements());
+        } while (foundPage.hasNext());
+
+        // Pages are read in separate queries, so catch up with the items changed or deleted while paging
+        applyDatabaseChangesSince(loadStartedAt.minusNanos(fileOverlapMs * 1_000_000L));
+        changedSinceWrite = true;
+    }
+
+    /**
+     * Restore the builder state from the index file and catch up with the database changes since its watermark
+     *
+     * @return false if there is no usable file and the index has to be loaded from scratch
+     */
+    private boolean restoreFromFile() {
+        Path path = Paths.get(filePath);
+        if (!fileEnabled || !Files.isRegularFile(path)) {
+            return false;
+        }
+
+        MatchIndexFile.Contents contents;
+        try {
+            contents = MatchIndexFile.read(path);
+        } catch (IOException e) {
+            System.err.println("Ignoring match index file " + path + ": " + e.getMessage());
+            return false;
+        }
+
+        clearState();
+        textVectorizer = contents.vectorizer;
+        for (Map.Entry<Long, String> entry : contents.lostItemCategories.entrySet()) {
+            SparseVector termCounts = contents.lostTermCounts.get(entry.getKey());
+            if (termCounts != null) {
+                lostTermCounts.put(entry.getKey(), termCounts);
+            }
+            lostItemIndex.add(entry.getKey(), entry.getValue(), termsOf(termCounts));
+        }
+        for (Map.Entry<Long, String> entry : contents.foundItemCategories.entrySet()) {
+            SparseVector termCounts = contents.foundTermCounts.get(entry.getKey());
+            if (termCounts != null) {
+                foundTermCounts.put(entry.getKey(), termCounts);
+            }
+            List<String> terms = termsOf(termCounts);
+            foundItemIndex.add(entry.getKey(), entry.getValue(), terms);
+            addFoundItemSignature(entry.getKey(), terms);
+            LocalDateTime date = contents.foundItemDates.get(entry.getKey());
+            if (date != null) {
+                foundItemDates.add(entry.getKey(), date);
+            }
+            String location = contents.foundItemLocations.get(entry.getKey());
+            if (location != null) {
+                foundItemLocations.put(entry.getKey(), location);
+            }
+        }
+        watermark = contents.watermark;
+
+        loadedItemCount.set(contents.lostItemCategories.size() + contents.foundItemCategories.size());
+        totalItemCount.set(loadedItemCount.get());
+        applyDatabaseChangesSince(watermark.minusNanos(fileOverlapMs * 1_000_000L));
+        return true;
+    }
+
+    /**
+     * Re-read items modified since the given time and drop items deleted from the database
+     */
+    private void applyDatabaseChangesSince(LocalDateTime since) {
+        for (LostItem item : lostItemRepository.findModifiedAfter(since)) {
+            removeLostItem(item.getId());
+            addLostItem(item.getId(), item.getCategory(), item.getDescription());
+            advanceWatermark(modifiedAt(item.getUpdatedAt(), item.getCreatedAt()));
+            changedSinceWrite = true;
+        }
+        for (FoundItem item : foundItemRepository.findModifiedAfter(since)) {
+            removeFoundItem(item.getId());
+            addFoundItem(item.getId(), item.getCategory(), item.getDescription(), item.getLocation(), item.getDate());
+            advanceWatermark(modifiedAt(item.getUpdatedAt(), item.getCreatedAt()));
+            changedSinceWrite = true;
+        }
+
+        // Deletions leave no timestamp behind, so compare the id sets instead
+        Set<Long> deletedLostItemIds = new HashSet<>(lostItemIndex.getDocumentIds());
+        deletedLostItemIds.removeAll(lostItemRepository.findAllIds());
+        for (Long id : deletedLostItemIds) {
+            removeLostItem(id);
+            changedSinceWrite = true;
+        }
+
+        Set<Long> deletedFoundItemIds = new HashSet<>(foundItemIndex.getDocumentIds());
+        deletedFoundItemIds.removeAll(foundItemRepository.findAllIds());
+        for (Long id : deletedFoundItemIds) {
+            removeFoundItem(id);
+            changedSinceWrite = true;
+        }
+    }
+
+    /**
+     * Save the builder state if it changed since the last write (builder thread)
+     */
+    private void writeFile() {
+        if (!changedSinceWrite) {
+            return;
+        }
+
+        try {
+            MatchIndexFile.write(Paths.get(filePath), new MatchIndexFile.Contents(watermark, textVectorizer,
+                    categoriesOf(lostItemIndex), lostTermCounts, categoriesOf(foundItemIndex), foundTermCounts,
+                    datesOf(foundItemDates), locationsOf(foundItemLocations)));
+            changedSinceWrite = false;
+        } catch (IOException e) {
+            System.err.println("Failed to write match index file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queue a change to the builder thread and schedule a coalesced publish
+     */
+    private void applyChange(Runnable change) {
+        builder.execute(() -> {
+            if (!loaded) {
+                // Without a pending load the initial load reads the committed state from the database later
+                if (initializationRequested.get()) {
+                    changesDuringLoad.add(change);
+                }
+                return;
+            }
+
+            change.run();
+            changedSinceWrite = true;
+            if (!publishScheduled) {
+                publishScheduled = true;
+                builder.schedule(this::publish, publishDelayMs, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    /**
+     * Freeze the builder state into a new immutable snapshot (builder thread)
+     */
+    private void publish() {
+        publishScheduled = false;
+
+        changesSinceRefresh += pendingLostItemChanges.size() + pendingFoundItemChanges.size();
+        if (frozenVectorizer == null || changesSinceRefresh > idfRefreshRatio * frozenVectorizer.getTotalDocuments()) {
+            refreshVectors();
+        } else {
+            foundItemTermBounds = foundItemTermBounds.with(
+                    weigh(pendingFoundItemChanges.keySet(), foundTermCounts, foundItemVectors));
+            lostItemTermBounds = lostItemTermBounds.with(
+                    weigh(pendingLostItemChanges, lostTermCounts, lostItemVectors));
+        }
+
+        snapshot.set(new MatchIndexSnapshot(++version, frozenVectorizer,
+                foundItemIndex.copy(), foundItemVectors.copy(), foundItemTermBounds, foundItemDates.copy(),
+                foundItemLocations.copy(), minHash, foundItemLsh != null ? foundItemLsh.copy() : null,
+                lostItemIndex.copy(), lostItemVectors.copy(), lostItemTermBounds));
+
+        matchResultCache.invalidateLostItems(pendingLostItemChanges);
+        matchResultCache.invalidateFoundItems(pendingFoundItemChanges);
+        pendingLostItemChanges.clear();
+        pendingFoundItemChanges.clear();
+    }
+
+    /**
+     * Freeze the current IDF values and reweigh every item with them (builder thread)
+     */
+    private void refreshVectors() {
+        frozenVectorizer = textVectorizer.copy();
+        changesSinceRefresh = 0;
+
+        foundItemVectors.clear();
+        lostItemVectors.clear();
+        foundItemTermBounds = TermUpperBounds.of(weigh(foundTermCounts.keySet(), foundTermCounts, foundItemVectors));
+        lostItemTermBounds = TermUpperBounds.of(weigh(lostTermCounts.keySet(), lostTermCounts, lostItemVectors));
+    }
+
+    /**
+     * Weigh the given items with the frozen IDF values, dropping the vectors of items without term counts
+     *
+     * @return The new vectors
+     */
+    private List<SparseVector> weigh(Collection<Long> ids, Map<Long, SparseVector> termCounts,
+                                     CopyOnWriteHashMap<Long, SparseVector> vectors) {
+        List<SparseVector> weighed = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            SparseVector counts = termCounts.get(id);
+            if (counts != null) {
+                SparseVector vector = frozenVectorizer.weigh(counts);
+                vectors.put(id, vector);
+                weighed.add(vector);
+            } else {
+                vectors.remove(id);
+            }
+        }
+        return weighed;
+    }
+
+    private void addLostItem(Long id, String category, String description) {
+        SparseVector termCounts = countTerms(description);
+        if (termCounts != null) {
+            textVectorizer.addTermCounts(termCounts);
+            lostTermCounts.put(id, termCounts);
+        }
+        lostItemIndex.add(id, normalizeCategory(category), termsOf(termCounts));
+    }
+
+    private void removeLostItem(Long lostItemId) {
+        SparseVector termCounts = lostTermCounts.remove(lostItemId);
+        if (termCounts != null) {
+            textVectorizer.removeTermCounts(termCounts);
+        }
+        lostItemIndex.remove(lostItemId);
+    }
+
+    private void addFoundItem(Long id, String category, String description, String location, LocalDateTime date) {
+        SparseVector termCounts = countTerms(description);
+        if (termCounts != null) {
+            textVectorizer.addTermCounts(termCounts);
+            foundTermCounts.put(id, termCounts);
+        }
+        List<String> terms = termsOf(termCounts);
+        foundItemIndex.add(id, normalizeCategory(category), terms);
+        addFoundItemSignature(id, terms);
+        if (date != null) {
+            foundItemDates.add(id, date);
+        }
+        if (location != null) {
+            foundItemLocations.put(id, location);
+        }
+    }
+
+    private void removeFoundItem(Long foundItemId) {
+        SparseVector termCounts = foundTermCounts.remove(foundItemId);
+        if (termCounts != null) {
+            textVectorizer.removeTermCounts(termCounts);
+        }
+        foundItemIndex.remove(foundItemId);
+        foundItemDates.remove(foundItemId);
+        foundItemLocations.remove(foundItemId);
+        if (foundItemLsh != null) {
+            foundItemLsh.remove(foundItemId);
+        }
+    }
+
+    /**
+     * Index the MinHash signature of a found item's term set, when the LSH index is enabled
+     */
+    private void addFoundItemSignature(Long id, List<String> terms) {
+        if (foundItemLsh == null) {
+            return;
+        }
+
+        int[] signature = minHash.signature(terms);
+        if (signature != null) {
+            foundItemLsh.add(id, signature);
+        }
+    }
+
+    /**
+     * Count the terms of a description, or return null if the item has no description
+     */
+    private SparseVector countTerms(String description) {
+        if (description == null || description.trim().isEmpty()) {
+            return null;
+        }
+        return textVectorizer.countTerms(description);
+    }
+
+    private List<String> termsOf(SparseVector termCounts) {
+        if (termCounts == null) {
+            return Collections.emptyList();
+        }
+
+        List<String> terms = new ArrayList<>(termCounts.size());
+        for (int i = 0; i < termCounts.size(); i++) {
+            terms.add(textVectorizer.getTerm(termCounts.indexAt(i)));
+        }
+        return terms;
+    }
+
+    private Map<Long, String> categoriesOf(ShardedInvertedIndex index) {
+        Map<Long, String> categories = new HashMap<>();
+        for (Long id : index.getDocumentIds()) {
+            categories.put(id, index.getShard(id));
+        }
+        return categories;
+    }
+
+    private Map<Long, LocalDateTime> datesOf(DayBucketTimeIndex index) {
+        Map<Long, LocalDateTime> dates = new HashMap<>();
+        for (Long id : index.getDocumentIds()) {
+            dates.put(id, index.getTime(id));
+        }
+        return dates;
+    }
+
+    private Map<Long, String> locationsOf(CopyOnWriteHashMap<Long, String> locations) {
+        Map<Long, String> copy = new HashMap<>();
+        locations.forEach(copy::put);
+        return copy;
+    }
+
+    private void clearState() {
+        textVectorizer = new TextVectorizer();
+        frozenVectorizer = null;
+        foundItemVectors.clear();
+        lostItemVectors.clear();
+        for (Long id : new ArrayList<>(lostItemIndex.getDocumentIds())) {
+            lostItemIndex.remove(id);
+        }
+        for (Long id : new ArrayList<>(foundItemIndex.getDocumentIds())) {
+            foundItemIndex.remove(id);
+        }
+        lostTermCounts.clear();
+        foundTermCounts.clear();
+        foundItemDates.clear();
+        foundItemLocations.clear();
+        if (lshEnabled) {
+            minHash = new MinHash(lshBands * lshRows, MIN_HASH_SEED);
+            foundItemLsh = new LshIndex(lshBands, lshRows);
+        }
+        watermark = NO_WATERMARK;
+    }
+
+    private void advanceWatermark(LocalDateTime modifiedAt) {
+        if (modifiedAt != null && modifiedAt.isAfter(watermark)) {
+            watermark = modifiedAt;
+        }
+    }
+
+    /**
+     * Normalize a category into the shard key used by the index: trimmed and lower-cased, empty when missing
+     */
+    static String normalizeCategory(String category) {
+        return category != null ? category.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static LocalDateTime modifiedAt(LocalDateTime updatedAt, LocalDateTime createdAt) {
+        return updatedAt != null ? updatedAt : createdAt;
+    }
+}
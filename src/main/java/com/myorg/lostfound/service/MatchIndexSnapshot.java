@@ -0,0 +1,215 @@
+package com.myorg.lostfound.service;
+
+import com.myorg.lostfound.util.CopyOnWriteHashMap;
+import com.myorg.lostfound.util.DayBucketTimeIndex;
+import com.myorg.lostfound.util.LshIndex;
+import com.myorg.lostfound.util.MinHash;
+import com.myorg.lostfound.util.ShardedInvertedIndex;
+import com.myorg.lostfound.util.SparseVector;
+import com.myorg.lostfound.util.TermUpperBounds;
+import com.myorg.lostfound.util.TextVectorizer;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable point-in-time view of the match index.
+ * Snapshots are built by {@link MatchIndexService} and can be read concurrently without locking.
+ * Term indexes are sharded by item category (see {@link MatchIndexService#normalizeCategory(String)}),
+ * and found items are additionally indexed by date in per-day buckets and, when enabled, by MinHash/LSH signature.
+ * Found items also keep their location, so candidates can be scored without reading them from the database.
+ * The structures share their unchanged parts with the builder state and the other snapshots, and item vectors are
+ * weighed with the IDF values frozen in the snapshot's vectorizer, which may predate the latest items.
+ */
+public final class MatchIndexSnapshot {
+    
+    private final long version;
+    private final LocalDateTime builtAt;
+    private final TextVectorizer textVectorizer;
+    private final ShardedInvertedIndex foundItemIndex;
+    private final CopyOnWriteHashMap<Long, SparseVector> foundItemVectors;
+    private final TermUpperBounds foundItemTermBounds;
+    private final DayBucketTimeIndex foundItemDates;
+    private final CopyOnWriteHashMap<Long, String> foundItemLocations;
+    private final MinHash minHash;
+    private final LshIndex foundItemLsh;
+    private final ShardedInvertedIndex lostItemIndex;
+    private final CopyOnWriteHashMap<Long, SparseVector> lostItemVectors;
+    private final TermUpperBounds lostItemTermBounds;
+    
+    MatchIndexSnapshot(long version, TextVectorizer textVectorizer,
+                       ShardedInvertedIndex foundItemIndex, CopyOnWriteHashMap<Long, SparseVector> foundItemVectors,
+                       TermUpperBounds foundItemTermBounds, DayBucketTimeIndex foundItemDates,
+                       CopyOnWriteHashMap<Long, String> foundItemLocations, MinHash minHash, LshIndex foundItemLsh,
+                       ShardedInvertedIndex lostItemIndex, CopyOnWriteHashMap<Long, SparseVector> lostItemVectors,
+                       TermUpperBounds lostItemTermBounds) {
+        this.version = version;
+        this.builtAt = LocalDateTime.now();
+        this.textVectorizer = textVectorizer;
+        this.foundItemIndex = foundItemIndex;
+        this.foundItemVectors = foundItemVectors;
+        this.foundItemTermBounds = foundItemTermBounds;
+        this.foundItemDates = foundItemDates;
+        this.foundItemLocations = foundItemLocations;
+        this.minHash = minHash;
+        this.foundItemLsh = foundItemLsh;
+        this.lostItemIndex = lostItemIndex;
+        this.lostItemVectors = lostItemVectors;
+        this.lostItemTermBounds = lostItemTermBounds;
+    }
+    
+    /**
+     * Check whether TF-IDF statistics are available for scoring
+     */
+    public boolean isVectorizerReady() {
+        return textVectorizer.getTotalDocuments() > 0;
+    }
+    
+    /**
+     * Transform a description into a sparse TF-IDF vector using the snapshot's statistics
+     */
+    public SparseVector vectorize(String description) {
+        return textVectorizer.transformSparse(description);
+    }
+    
+    /**
+     * Get the precomputed vector of a found item, or null if the item has no indexed description
+     */
+    public SparseVector getFoundItemVector(Long foundItemId) {
+        return foundItemVectors.get(foundItemId);
+    }
+    
+    /**
+     * Get an upper bound of the text similarity between a query vector and any found item vector of the snapshot
+     */
+    public double getFoundItemSimilarityBound(SparseVector queryVector) {
+        return foundItemTermBounds.cosineUpperBound(queryVector);
+    }
+    
+    /**
+     * Check whether a found item was known when the snapshot was built
+     */
+    public boolean containsFoundItem(Long foundItemId) {
+        return foundItemIndex.contains(foundItemId);
+    }
+    
+    /**
+     * Find the ids of found items sharing at least one term with the given terms
+     */
+    public Set<Long> searchFoundItems(Collection<String> terms) {
+        return foundItemIndex.search(terms);
+    }
+    
+    /**
+     * Find the ids of found items in the given categories sharing at least one term with the given terms
+     */
+    public Set<Long> searchFoundItems(Collection<String> terms, Collection<String> categories) {
+        return foundItemIndex.search(terms, categories);
+    }
+    
+    /**
+     * Check whether the found items are indexed by MinHash/LSH signature
+     */
+    public boolean hasFoundItemSimilarityIndex() {
+        return foundItemLsh != null;
+    }
+    
+    /**
+     * Find the ids of found items whose term sets are likely similar to the given terms (LSH collisions).
+     * Returns an empty set when the LSH index is disabled.
+     */
+    public Set<Long> searchSimilarFoundItems(Collection<String> terms) {
+        if (foundItemLsh == null) {
+            return Collections.emptySet();
+        }
+        
+        int[] signature = minHash.signature(terms);
+        return signature != null ? foundItemLsh.search(signature) : Collections.<Long>emptySet();
+    }
+    
+    /**
+     * Find the ids of found items dated within [startDate, endDate], ordered by date
+     */
+    public List<Long> findFoundItemsInWindow(LocalDateTime startDate, LocalDateTime endDate) {
+        return foundItemDates.search(startDate, endDate);
+    }
+    
+    /**
+     * Get the normalized category of a found item, or null if it was not known when the snapshot was built
+     */
+    public String getFoundItemCategory(Long foundItemId) {
+        return foundItemIndex.getShard(foundItemId);
+    }
+    
+    /**
+     * Get the date of a found item, or null if it has none or was not known when the snapshot was built
+     */
+    public LocalDateTime getFoundItemDate(Long foundItemId) {
+        return foundItemDates.getTime(foundItemId);
+    }
+    
+    /**
+     * Get the location of a found item as saved, or null if it has none or was not known when the snapshot was built
+     */
+    public String getFoundItemLocation(Long foundItemId) {
+        return foundItemLocations.get(foundItemId);
+    }
+    
+    /**
+     * Get the precomputed vector of a lost item, or null if the item has no indexed description
+     */
+    public SparseVector getLostItemVector(Long lostItemId) {
+        return lostItemVectors.get(lostItemId);
+    }
+    
+    /**
+     * Get an upper bound of the text similarity between a query vector and any lost item vector of the snapshot
+     */
+    public double getLostItemSimilarityBound(SparseVector queryVector) {
+        return lostItemTermBounds.cosineUpperBound(queryVector);
+    }
+    
+    /**
+     * Check whether a lost item was known when the snapshot was built
+     */
+    public boolean containsLostItem(Long lostItemId) {
+        return lostItemIndex.contains(lostItemId);
+    }
+    
+    /**
+     * Find the ids of lost items sharing at least one term with the given terms
+     */
+    public Set<Long> searchLostItems(Collection<String> terms) {
+        return lostItemIndex.search(terms);
+    }
+    
+    /**
+     * Find the ids of lost items in the given categories sharing at least one term with the given terms
+     */
+    public Set<Long> searchLostItems(Collection<String> terms, Collection<String> categories) {
+        return lostItemIndex.search(terms, categories);
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+    
+    public int getFoundItemCount() {
+        return foundItemIndex.size();
+    }
+    
+    public int getLostItemCount() {
+        return lostItemIndex.size();
+    }
+    
+    public int getDocumentCount() {
+        return textVectorizer.getTotalDocuments();
+    }
+}
@@ -0,0 +1,196 @@
+package com.myorg.lostfound.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters of the matching pipeline, exposed by Actuator on /actuator/metrics and /actuator/prometheus.
+ * 
+ * Every phase of a match computation is timed under lostfound.match.phase, tagged with the phase name, and whole
+ * {@link MatchService#findMatches} calls under lostfound.match.find, tagged with whether the cache answered.
+ * Whole reverse matches are timed under lostfound.match.reverse and whole batches under lostfound.match.batch,
+ * tagged with whether the results were streamed to a listener or collected.
+ * Percentiles and histogram buckets are configured with the management.metrics.distribution.* properties.
+ * Counters track the candidates retrieved and scored, Jaccard fallbacks and result cache hits and misses.
+ */
+@Service
+public class MatchMetrics {
+    
+    /**
+     * Timed phases of a match computation
+     */
+    public enum Phase {
+        /** Loading the query item */
+        ITEM_LOOKUP("item-lookup"),
+        /** Vectorizing the query description and bounding its text similarity */
+        VECTORIZER("vectorizer"),
+        /** Retrieving the candidates from the database or the match index */
+        CANDIDATE_QUERY("candidate-query"),
+        /** Scoring the candidates into the top K */
+        SCORING("scoring"),
+        /** Sorting the top K by score */
+        SORT("sort"),
+        /** Loading the contact details of the winners and building the result DTOs */
+        RESULTS("results"),
+        /** Serializing streamed results and writing them to the client */
+        SERIALIZATION("serialization");
+        
+        private final String tag;
+        
+        Phase(String tag) {
+            this.tag = tag;
+        }
+    }
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private MatchResultCache matchResultCache;
+    
+    private final Map<Phase, Timer> phaseTimers = new EnumMap<>(Phase.class);
+    private Timer findCacheHitTimer;
+    private Timer findCacheMissTimer;
+    private Timer reverseTimer;
+    private Timer batchStreamedTimer;
+    private Timer batchCollectedTimer;
+    private Counter candidateCounter;
+    private Counter scoredCounter;
+    private Counter queryFallbackCounter;
+    private Counter candidateFallbackCounter;
+    
+    @PostConstruct
+    public void init() {
+        for (Phase phase : Phase.values()) {
+            phaseTimers.put(phase, Timer.builder("lostfound.match.phase")
+                    .description("Time spent in one phase of a match computation")
+                    .tag("phase", phase.tag)
+                    .register(meterRegistry));
+        }
+        findCacheHitTimer = findTimer("hit");
+        findCacheMissTimer = findTimer("miss");
+        reverseTimer = Timer.builder("lostfound.match.reverse")
+                .description("Time to find the lost items matching a found item")
+                .register(meterRegistry);
+        batchStreamedTimer = batchTimer("true");
+        batchCollectedTimer = batchTimer("false");
+        
+        candidateCounter = Counter.builder("lostfound.match.candidates")
+                .description("Candidates retrieved for scoring")
+                .register(meterRegistry);
+        scoredCounter = Counter.builder("lostfound.match.scored")
+                .description("Candidates fully scored, the others having been pruned by their score bound")
+                .register(meterRegistry);
+        queryFallbackCounter = jaccardFallbackCounter("query");
+        candidateFallbackCounter = jaccardFallbackCounter("candidate");
+        
+        FunctionCounter.builder("lostfound.match.cache.requests", matchResultCache, MatchResultCache::getHitCount)
+                .description("Match result cache lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("lostfound.match.cache.requests", matchResultCache, MatchResultCache::getMissCount)
+                .description("Match result cache lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("lostfound.match.cache.size", matchResultCache, MatchResultCache::size)
+                .description("Match result cache entries")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Record the time spent in a phase since the given {@link System#nanoTime()} reading
+     */
+    public void recordPhase(Phase phase, long startNanos) {
+        phaseTimers.get(phase).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Record a whole findMatches call since the given {@link System#nanoTime()} reading
+     * 
+     * @param cacheHit Whether the results came from the match result cache
+     * @param startNanos Reading taken when the call started
+     */
+    public void recordFind(boolean cacheHit, long startNanos) {
+        Timer timer = cacheHit ? findCacheHitTimer : findCacheMissTimer;
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Record a whole findLostItemMatches call since the given {@link System#nanoTime()} reading
+     */
+    public void recordReverse(long startNanos) {
+        reverseTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Record a whole findMatchesBatch call since the given {@link System#nanoTime()} reading
+     * 
+     * @param streamed Whether each lost item's results were handed to a listener, which includes its writes
+     * @param startNanos Reading taken when the call started
+     */
+    public void recordBatch(boolean streamed, long startNanos) {
+        Timer timer = streamed ? batchStreamedTimer : batchCollectedTimer;
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Count candidates retrieved for scoring
+     */
+    public void recordCandidates(int count) {
+        candidateCounter.increment(count);
+    }
+    
+    /**
+     * Count candidates whose full score was computed
+     */
+    public void recordScored(int count) {
+        if (count > 0) {
+            scoredCounter.increment(count);
+        }
+    }
+    
+    /**
+     * Count a query scored with Jaccard similarity because its description could not be vectorized
+     */
+    public void recordQueryFallback() {
+        queryFallbackCounter.increment();
+    }
+    
+    /**
+     * Count a candidate scored with Jaccard similarity because its TF-IDF similarity failed
+     */
+    public void recordCandidateFallback() {
+        candidateFallbackCounter.increment();
+    }
+    
+    private Timer findTimer(String cache) {
+        return Timer.builder("lostfound.match.find")
+                .description("Time to find the matches of a lost item")
+                .tag("cache", cache)
+                .register(meterRegistry);
+    }
+    
+    private Timer batchTimer(String streamed) {
+        return Timer.builder("lostfound.match.batch")
+                .description("Time to find the matches of a batch of lost items")
+                .tag("streamed", streamed)
+                .register(meterRegistry);
+    }
+    
+    private Counter jaccardFallbackCounter(String level) {
+        return Counter.builder("lostfound.match.jaccard.fallbacks")
+                .description("Text similarities computed with Jaccard instead of TF-IDF cosine similarity")
+                .tag("level", level)
+                .register(meterRegistry);
+    }
+}
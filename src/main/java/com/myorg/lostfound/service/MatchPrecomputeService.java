@@ -0,0 +1,292 @@
+package com.myorg.lostfound.service;
+
+import com.myorg.lostfound.dto.BatchMatchRequestDto;
+import com.myorg.lostfound.dto.MatchResultDto;
+import com.myorg.lostfound.model.LostItem;
+import com.myorg.lostfound.model.Match;
+import com.myorg.lostfound.repository.LostItemRepository;
+import com.myorg.lostfound.repository.MatchRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Service precomputing the top matches of every open lost item into the matches table.
+ *
+ * Lost items are partitioned into date ranges that are processed in parallel, each partition in its own
+ * transaction. Completed partitions are checkpointed to a local file so that a run interrupted by a failure
+ * or a restart resumes where it stopped when started again the same day. The checkpoint is deleted once
+ * a run completes, so the next run always starts over.
+ */
+@Service
+public class MatchPrecomputeService {
+    
+    // Stored matches still worth suggesting; REJECTED ones were dismissed and RESOLVED ones are done
+    private static final List<Match.MatchStatus> SUGGESTED_STATUSES =
+            Arrays.asList(Match.MatchStatus.PENDING, Match.MatchStatus.CONFIRMED);
+    
+    @Autowired
+    private MatchService matchService;
+    
+    @Autowired
+    private LostItemRepository lostItemRepository;
+    
+    @Autowired
+    private MatchStoreService matchStoreService;
+    
+    @Autowired
+    private MatchRepository matchRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${app.match.precompute.threads:4}")
+    private int threads;
+    
+    @Value("${app.match.precompute.partition-days:7}")
+    private int partitionDays;
+    
+    @Value("${app.match.precompute.days-before:7}")
+    private int daysBefore;
+    
+    @Value("${app.match.precompute.days-after:30}")
+    private int daysAfter;
+    
+    @Value("${app.match.precompute.limit:10}")
+    private int limit;
+    
+    @Value("${app.match.precompute.checkpoint-file:match-precompute.checkpoint}")
+    private String checkpointFile;
+    
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    
+    /**
+     * Nightly run, scheduled by app.match.precompute.cron ("-" disables it)
+     */
+    @Scheduled(cron = "${app.match.precompute.cron:0 0 2 * * *}")
+    public void runNightly() {
+        try {
+            runPrecomputation();
+        } catch (IllegalStateException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+    
+    /**
+     * Precompute and store matches for all open lost items
+     * 
+     * @return Number of lost items processed, or -1 if a run is already in progress
+     * @throws IllegalStateException If a partition failed or the run was interrupted; the partitions completed
+     *                               so far stay checkpointed and are skipped by the next run of the same day
+     */
+    public int runPrecomputation() {
+        if (!running.compareAndSet(false, true)) {
+            return -1;
+        }
+        
+        AtomicInteger processed = new AtomicInteger();
+        try {
+            LocalDateTime minDate = lostItemRepository.findMinDate();
+            LocalDateTime maxDate = lostItemRepository.findMaxDate();
+            if (minDate == null || maxDate == null) {
+                return 0;
+            }
+            
+            Checkpoint checkpoint = loadCheckpoint(LocalDate.now());
+            Set<Long> closedLostItemIds = new HashSet<>(
+                    matchRepository.findLostItemIdsWithStatusIn(MatchStoreService.CLOSED_STATUSES));
+            
+            ExecutorService workers = Executors.newFixedThreadPool(Math.max(threads, 1), runnable -> {
+                Thread thread = new Thread(runnable, "match-precompute");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                LocalDateTime partitionStart = minDate.toLocalDate().atStartOfDay();
+                while (!partitionStart.isAfter(maxDate)) {
+                    LocalDateTime start = partitionStart;
+                    LocalDateTime end = partitionStart.plusDays(Math.max(partitionDays, 1));
+                    if (!checkpoint.isCompleted(start)) {
+                        futures.add(workers.submit(() -> {
+                            processed.addAndGet(processPartition(start, end, closedLostItemIds));
+                            checkpoint.markCompleted(start);
+                        }));
+                    }
+                    partitionStart = end;
+                }
+                
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                workers.shutdownNow();
+            }
+            
+            // Every partition is done, so nothing is left to resume
+            checkpoint.delete();
+            return processed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Match precomputation interrupted after processing " + processed.get()
+                    + " lost items", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Match precomputation failed after processing " + processed.get()
+                    + " lost items: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    /**
+     * Get the stored PENDING and CONFIRMED matches of a lost item, computing them live if none have been
+     * stored yet. Rejected matches are never suggested again, so a lost item whose stored matches were all
+     * rejected gets an empty list.
+     */
+    public List<MatchResultDto> getPrecomputedMatches(Long lostItemId) {
+        List<Match> stored = matchRepository.findByLostItemIdAndStatusInWithFoundItem(lostItemId, SUGGESTED_STATUSES);
+        if (stored.isEmpty() && matchRepository.countByLostItemId(lostItemId) == 0) {
+            BatchMatchRequestDto request = createBatchRequest(Collections.singletonList(lostItemId));
+            return matchService.findMatchesBatch(request).getOrDefault(lostItemId, Collections.emptyList());
+        }
+        
+        return stored.stream()
+                .map(this::toMatchResult)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Compute and upsert the matches of all open lost items in [start, end)
+     */
+    private int processPartition(LocalDateTime start, LocalDateTime end, Set<Long> closedLostItemIds) {
+        List<Long> lostItemIds = lostItemRepository.findByDateGreaterThanEqualAndDateLessThan(start, end).stream()
+                .map(LostItem::getId)
+                .filter(id -> !closedLostItemIds.contains(id))
+                .collect(Collectors.toList());
+        if (lostItemIds.isEmpty()) {
+            return 0;
+        }
+        
+        transactionTemplate.executeWithoutResult(status ->
+                matchService.findMatchesBatch(createBatchRequest(lostItemIds), matchStoreService::replacePendingMatches));
+        return lostItemIds.size();
+    }
+    
+    private BatchMatchRequestDto createBatchRequest(List<Long> lostItemIds) {
+        BatchMatchRequestDto request = new BatchMatchRequestDto(lostItemIds);
+        request.setDaysBefore(daysBefore);
+        request.setDaysAfter(daysAfter);
+        request.setLimit(limit);
+        return request;
+    }
+    
+    /**
+     * Create the match result DTO for a stored match; component scores are not stored
+     */
+    private MatchResultDto toMatchResult(Match match) {
+        MatchResultDto result = new MatchResultDto();
+        result.setFoundItemId(match.getFoundItem().getId());
+        result.setFoundItemTitle(match.getFoundItem().getTitle());
+        result.setFoundItemDescription(match.getFoundItem().getDescription());
+        result.setFoundItemCategory(match.getFoundItem().getCategory());
+        result.setFoundItemLocation(match.getFoundItem().getLocation());
+        result.setFoundItemDate(match.getFoundItem().getDate());
+        result.setFoundItemImagePath(match.getFoundItem().getImagePath());
+        result.setFoundItemCreatedAt(match.getFoundItem().getCreatedAt());
+        
+        if (match.getFoundItem().getUser() != null) {
+            result.setFoundByUserName(match.getFoundItem().getUser().getName());
+            result.setFoundByUserEmail(match.getFoundItem().getUser().getEmail());
+            result.setFoundByUserPhone(match.getFoundItem().getUser().getPhone());
+        }
+        
+        result.setMatchScore(match.getMatchScore());
+        return result;
+    }
+    
+    private Checkpoint loadCheckpoint(LocalDate runDate) {
+        Path path = Paths.get(checkpointFile);
+        Properties properties = new Properties();
+        if (Files.exists(path)) {
+            try (InputStream in = Files.newInputStream(path)) {
+                properties.load(in);
+            } catch (IOException e) {
+                System.err.println("Failed to read match precompute checkpoint, starting over: " + e.getMessage());
+            }
+        }
+        
+        Set<String> completed = new HashSet<>();
+        if (runDate.toString().equals(properties.getProperty("run"))) {
+            String value = properties.getProperty("completed", "");
+            if (!value.isEmpty()) {
+                completed.addAll(Arrays.asList(value.split(",")));
+            }
+        }
+        return new Checkpoint(path, runDate, completed);
+    }
+    
+    /**
+     * Completed partitions of the current run, persisted after every partition
+     */
+    private static final class Checkpoint {
+        private final Path path;
+        private final LocalDate runDate;
+        private final Set<String> completed;
+        
+        private Checkpoint(Path path, LocalDate runDate, Set<String> completed) {
+            this.path = path;
+            this.runDate = runDate;
+            this.completed = completed;
+        }
+        
+        private synchronized boolean isCompleted(LocalDateTime partitionStart) {
+            return completed.contains(partitionStart.toLocalDate().toString());
+        }
+        
+        private synchronized void markCompleted(LocalDateTime partitionStart) {
+            completed.add(partitionStart.toLocalDate().toString());
+            
+            Properties properties = new Properties();
+            properties.setProperty("run", runDate.toString());
+            properties.setProperty("completed", String.join(",", completed));
+            try {
+                // Write to a temporary file first so a crash never leaves a truncated checkpoint
+                Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+                try (OutputStream out = Files.newOutputStream(temporary)) {
+                    properties.store(out, "Match precompute checkpoint");
+                }
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                System.err.println("Failed to write match precompute checkpoint: " + e.getMessage());
+            }
+        }
+        
+        private synchronized void delete() {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                System.err.println("Failed to delete match precompute checkpoint: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.myorg.lostfound.service;
+
+import com.myorg.lostfound.dto.MatchRequestDto;
+import com.myorg.lostfound.dto.MatchResultDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded LRU cache of match results keyed by the fields of a {@link MatchRequestDto}, with a TTL.
+ * 
+ * Entries are invalidated precisely: a created or updated found item only evicts the entries whose date window
+ * contains its date or whose results include it, and a changed lost item only evicts its own entries.
+ * Windows are indexed by day so that finding the affected entries does not scan the whole cache.
+ * Changes to the TF-IDF statistics caused by unrelated items are not tracked; the TTL bounds that drift.
+ * 
+ * The cache keeps its own copies of the result DTOs and hands out fresh copies, so callers may modify what they get.
+ */
+@Service
+public class MatchResultCache {
+    
+    // Windows spanning more days than this are checked by scanning instead of being indexed day by day
+    private static final int MAX_INDEXED_WINDOW_DAYS = 366;
+    
+    @Value("${app.match.cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.match.cache.max-size:10000}")
+    private int maxSize;
+    
+    @Value("${app.match.cache.ttl-ms:300000}")
+    private long ttlMs;
+    
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Secondary indexes hold the entries themselves, so that lookups do not touch the LRU order
+    private final Map<Long, Set<Entry>> entriesByDay = new HashMap<>();
+    private final Set<Entry> wideWindowEntries = new HashSet<>();
+    private final Map<Long, Set<Entry>> entriesByLostItem = new HashMap<>();
+    private final Map<Long, Set<Entry>> entriesByFoundItem = new HashMap<>();
+    
+    // Bumped by every invalidation, so results computed across one are not cached
+    private final AtomicLong generation = new AtomicLong();
+    
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong puts = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    /**
+     * Get a copy of the cached results of a request, or null if there are none or they expired
+     */
+    public List<MatchResultDto> get(MatchRequestDto request) {
+        if (!enabled) {
+            return null;
+        }
+        
+        Key key = new Key(request);
+        List<MatchResultDto> results;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && System.currentTimeMillis() - entry.createdAt > ttlMs) {
+                remove(key);
+                expirations.incrementAndGet();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            results = entry.results;
+        }
+        return copyOf(results);
+    }
+    
+    /**
+     * Get the current invalidation generation, to be passed to {@link #put} once the results are computed
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+    
+    /**
+     * Cache the results of a request, unless an invalidation happened since they started being computed
+     * 
+     * @param request Match request
+     * @param startDate Start of the request's date window
+     * @param endDate End of the request's date window
+     * @param results Ranked results
+     * @param computedGeneration Generation read before the computation started
+     * @return The given results as an unmodifiable list; the cache stores its own copies
+     */
+    public List<MatchResultDto> put(MatchRequestDto request, LocalDateTime startDate, LocalDateTime endDate,
+                                    List<MatchResultDto> results, long computedGeneration) {
+        List<MatchResultDto> unmodifiable = Collections.unmodifiableList(new ArrayList<>(results));
+        if (!enabled || maxSize <= 0) {
+            return unmodifiable;
+        }
+        
+        Key key = new Key(request);
+        List<MatchResultDto> cached = copyOf(results);
+        synchronized (this) {
+            if (generation.get() != computedGeneration) {
+                return unmodifiable;
+            }
+            
+            remove(key);
+            Entry entry = new Entry(key, startDate, endDate, cached, System.currentTimeMillis());
+            entries.put(key, entry);
+            index(entry);
+            puts.incrementAndGet();
+            
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (entries.size() > maxSize) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                unindex(evicted);
+                evictions.incrementAndGet();
+            }
+        }
+        return unmodifiable;
+    }
+    
+    /**
+     * Evict the entries a created, updated or deleted found item can affect
+     * 
+     * @param foundItemId Found item id
+     * @param date Current date of the item, or null if it was deleted
+     */
+    public void invalidateFoundItem(Long foundItemId, LocalDateTime date) {
+        invalidateFoundItems(Collections.singletonMap(foundItemId, date));
+    }
+    
+    /**
+     * Evict the entries any of the given found items can affect
+     * 
+     * @param foundItemDates Current date of each changed found item, null for deleted items
+     */
+    public void invalidateFoundItems(Map<Long, LocalDateTime> foundItemDates) {
+        if (foundItemDates.isEmpty()) {
+            return;
+        }
+        
+        synchronized (this) {
+            generation.incrementAndGet();
+            Set<Entry> affected = new HashSet<>();
+            for (Map.Entry<Long, LocalDateTime> change : foundItemDates.entrySet()) {
+                // Entries listing the item may lose it or rank it differently
+                affected.addAll(entriesByFoundItem.getOrDefault(change.getKey(), Collections.emptySet()));
+                
+                // Entries whose window now contains the item may gain it
+                LocalDateTime date = change.getValue();
+                if (date != null) {
+                    collectWindowsContaining(date, entriesByDay.getOrDefault(date.toLocalDate().toEpochDay(),
+                            Collections.emptySet()), affected);
+                    collectWindowsContaining(date, wideWindowEntries, affected);
+                }
+            }
+            removeAll(affected);
+        }
+    }
+    
+    /**
+     * Evict the entries of a created, updated or deleted lost item
+     */
+    public void invalidateLostItem(Long lostItemId) {
+        invalidateLostItems(Collections.singleton(lostItemId));
+    }
+    
+    /**
+     * Evict the entries of the given lost items
+     */
+    public void invalidateLostItems(Collection<Long> lostItemIds) {
+        if (lostItemIds.isEmpty()) {
+            return;
+        }
+        
+        synchronized (this) {
+            generation.incrementAndGet();
+            Set<Entry> affected = new HashSet<>();
+            for (Long lostItemId : lostItemIds) {
+                affected.addAll(entriesByLostItem.getOrDefault(lostItemId, Collections.emptySet()));
+            }
+            removeAll(affected);
+        }
+    }
+    
+    /**
+     * Evict every entry
+     */
+    public void clear() {
+        synchronized (this) {
+            generation.incrementAndGet();
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+            entriesByDay.clear();
+            wideWindowEntries.clear();
+            entriesByLostItem.clear();
+            entriesByFoundItem.clear();
+        }
+    }
+    
+    /**
+     * Get the cache statistics: size, hits, misses, hit rate, puts, evictions, expirations and invalidations
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long requests = hitCount + missCount;
+        
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        synchronized (this) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxSize", maxSize);
+        stats.put("ttlMs", ttlMs);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", requests > 0 ? (double) hitCount / requests : 0.0);
+        stats.put("puts", puts.get());
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+    
+    /**
+     * Get the number of lookups answered from the cache
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+    
+    /**
+     * Get the number of lookups that found no live entry
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+    
+    /**
+     * Get the number of cached entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    private static List<MatchResultDto> copyOf(List<MatchResultDto> results) {
+        List<MatchResultDto> copies = new ArrayList<>(results.size());
+        for (MatchResultDto result : results) {
+            copies.add(new MatchResultDto(result));
+        }
+        return Collections.unmodifiableList(copies);
+    }
+    
+    private void collectWindowsContaining(LocalDateTime date, Set<Entry> candidates, Set<Entry> affected) {
+        for (Entry entry : candidates) {
+            if (!date.isBefore(entry.startDate) && !date.isAfter(entry.endDate)) {
+                affected.add(entry);
+            }
+        }
+    }
+    
+    private void removeAll(Set<Entry> affected) {
+        for (Entry entry : affected) {
+            remove(entry.key);
+        }
+        invalidations.addAndGet(affected.size());
+    }
+    
+    private void remove(Key key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            unindex(entry);
+        }
+    }
+    
+    private void index(Entry entry) {
+        long startDay = entry.startDate.toLocalDate().toEpochDay();
+        long endDay = entry.endDate.toLocalDate().toEpochDay();
+        if (endDay - startDay >= MAX_INDEXED_WINDOW_DAYS) {
+            wideWindowEntries.add(entry);
+        } else {
+            for (long day = startDay; day <= endDay; day++) {
+                entriesByDay.computeIfAbsent(day, d -> new HashSet<>()).add(entry);
+            }
+        }
+        
+        entriesByLostItem.computeIfAbsent(entry.key.lostItemId, id -> new HashSet<>()).add(entry);
+        for (MatchResultDto result : entry.results) {
+            entriesByFoundItem.computeIfAbsent(result.getFoundItemId(), id -> new HashSet<>()).add(entry);
+        }
+    }
+    
+    private void unindex(Entry entry) {
+        long startDay = entry.startDate.toLocalDate().toEpochDay();
+        long endDay = entry.endDate.toLocalDate().toEpochDay();
+        if (endDay - startDay >= MAX_INDEXED_WINDOW_DAYS) {
+            wideWindowEntries.remove(entry);
+        } else {
+            for (long day = startDay; day <= endDay; day++) {
+                removeFromIndex(entriesByDay, day, entry);
+            }
+        }
+        
+        removeFromIndex(entriesByLostItem, entry.key.lostItemId, entry);
+        for (MatchResultDto result : entry.results) {
+            removeFromIndex(entriesByFoundItem, result.getFoundItemId(), entry);
+        }
+    }
+    
+    private static void removeFromIndex(Map<Long, Set<Entry>> index, Long id, Entry entry) {
+        Set<Entry> indexed = index.get(id);
+        if (indexed != null) {
+            indexed.remove(entry);
+            if (indexed.isEmpty()) {
+                index.remove(id);
+            }
+        }
+    }
+    
+    /**
+     * Cache key made of every request field that affects the results.
+     * The retriever name is normalized like {@link MatchService} resolves it, so "DB" and "db" share entries.
+     */
+    private static final class Key {
+        private final Long lostItemId;
+        private final String locationFilter;
+        private final Integer daysBefore;
+        private final Integer daysAfter;
+        private final Integer limit;
+        private final Double minScore;
+        private final MatchRequestDto.CategoryMode categoryMode;
+        private final String retriever;
+        
+        private Key(MatchRequestDto request) {
+            this.lostItemId = request.getLostItemId();
+            this.locationFilter = request.getLocationFilter();
+            this.daysBefore = request.getDaysBefore();
+            this.daysAfter = request.getDaysAfter();
+            this.limit = request.getLimit();
+            this.minScore = request.getMinScore();
+            this.categoryMode = request.getCategoryMode();
+            String retriever = request.getRetriever();
+            this.retriever = retriever != null && !retriever.trim().isEmpty()
+                    ? retriever.trim().toLowerCase(Locale.ROOT) : null;
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return Objects.equals(lostItemId, key.lostItemId)
+                    && Objects.equals(locationFilter, key.locationFilter)
+                    && Objects.equals(daysBefore, key.daysBefore)
+                    && Objects.equals(daysAfter, key.daysAfter)
+                    && Objects.equals(limit, key.limit)
+                    && Objects.equals(minScore, key.minScore)
+                    && categoryMode == key.categoryMode
+                    && Objects.equals(retriever, key.retriever);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(lostItemId, locationFilter, daysBefore, daysAfter, limit, minScore, categoryMode,
+                    retriever);
+        }
+    }
+    
+    /**
+     * Cached results with their key and the date window they were computed over
+     */
+    private static final class Entry {
+        private final Key key;
+        private final LocalDateTime startDate;
+        private final LocalDateTime endDate;
+        private final List<MatchResultDto> results;
+        private final long createdAt;
+        
+        private Entry(Key key, LocalDateTime startDate, LocalDateTime endDate, List<MatchResultDto> results,
+                      long createdAt) {
+            this.key = key;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.results = results;
+            this.createdAt = createdAt;
+        }
+    }
+}
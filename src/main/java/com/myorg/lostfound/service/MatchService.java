@@ -1,136 +1,783 @@
 package com.myorg.lostfound.service;
 
+import com.myorg.lostfound.config.MatchCategoryProperties;
+import com.myorg.lostfound.dto.BatchMatchRequestDto;
+import com.myorg.lostfound.dto.FoundItemCandidateDto;
+import com.myorg.lostfound.dto.LostItemMatchResultDto;
 import com.myorg.lostfound.dto.MatchRequestDto;
 import com.myorg.lostfound.dto.MatchResultDto;
+import com.myorg.lostfound.dto.ReverseMatchRequestDto;
+import com.myorg.lostfound.dto.UserContactDto;
 import com.myorg.lostfound.model.LostItem;
 import com.myorg.lostfound.model.FoundItem;
 import com.myorg.lostfound.repository.LostItemRepository;
 import com.myorg.lostfound.repository.FoundItemRepository;
-import com.myorg.lostfound.util.TextVectorizer;
+import com.myorg.lostfound.repository.MatchRepository;
 import com.myorg.lostfound.util.CosineSimilarity;
+import com.myorg.lostfound.util.JaccardSimilarity;
+import com.myorg.lostfound.util.SparseVector;
+import com.myorg.lostfound.util.Tokenizer;
+import com.myorg.lostfound.util.TopKCollector;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
- * Service for finding matches between lost and found items
+ * Service for finding matches between lost and found items, in either direction
  */
 @Service
 public class MatchService {
     
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 100;
+    
+    // Slack added to score upper bounds so that floating-point rounding never prunes a candidate that could qualify
+    private static final double BOUND_TOLERANCE = 1e-9;
+    
+    private static final CandidateType<FoundItemCandidateDto> FOUND_ITEMS = new CandidateType<>(true,
+            FoundItemCandidateDto::getId, FoundItemCandidateDto::getDescription, FoundItemCandidateDto::getLocation,
+            FoundItemCandidateDto::getDate);
+    
+    private static final CandidateType<LostItem> LOST_ITEMS = new CandidateType<>(false,
+            LostItem::getId, LostItem::getDescription, LostItem::getLocation, LostItem::getDate);
+    
     @Autowired
     private LostItemRepository lostItemRepository;
     
     @Autowired
     private FoundItemRepository foundItemRepository;
     
-    private TextVectorizer textVectorizer;
-    private boolean vectorizerInitialized = false;
+    @Autowired
+    private MatchRepository matchRepository;
+    
+    @Autowired
+    private MatchIndexService matchIndexService;
+    
+    @Autowired
+    private MatchCategoryProperties matchCategoryProperties;
+    
+    @Autowired
+    private MatchResultCache matchResultCache;
+    
+    @Autowired
+    private List<CandidateRetriever> candidateRetrieverBeans;
+    
+    @Autowired
+    private DatabaseCandidateRetriever databaseCandidateRetriever;
+    
+    @Autowired
+    private MatchMetrics matchMetrics;
+    
+    @Value("${app.match.candidate-retriever:memory}")
+    private String candidateRetrieverName;
+    
+    @Value("${app.match.max-score.enabled:true}")
+    private boolean maxScorePruningEnabled;
+    
+    @Value("${app.match.batch.max-window-days:31}")
+    private int batchMaxWindowDays;
+    
+    @Value("${app.match.parallel.enabled:true}")
+    private boolean parallelScoringEnabled;
+    
+    @Value("${app.match.parallel.threshold:2000}")
+    private int parallelThreshold;
+    
+    @Value("${app.match.parallel.shard-size:500}")
+    private int parallelShardSize;
+    
+    @Value("${app.match.parallel.parallelism:0}")
+    private int parallelism;
+    
+    private ForkJoinPool scoringPool;
+    
+    // Candidate retrievers by name, and the one used when a request does not name one
+    private Map<String, CandidateRetriever> candidateRetrievers = Collections.emptyMap();
+    private CandidateRetriever defaultRetriever;
+    
+    // Normalized category -> normalized related categories, in both directions
+    private Map<String, Set<String>> relatedCategories = Collections.emptyMap();
+    
+    @PostConstruct
+    public void init() {
+        Map<String, Set<String>> related = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : matchCategoryProperties.getRelated().entrySet()) {
+            String category = MatchIndexService.normalizeCategory(entry.getKey());
+            for (String relatedCategory : entry.getValue()) {
+                String normalized = MatchIndexService.normalizeCategory(relatedCategory);
+                if (!normalized.isEmpty() && !normalized.equals(category)) {
+                    related.computeIfAbsent(category, key -> new HashSet<>()).add(normalized);
+                    related.computeIfAbsent(normalized, key -> new HashSet<>()).add(category);
+                }
+            }
+        }
+        relatedCategories = related;
+        
+        Map<String, CandidateRetriever> retrievers = new TreeMap<>();
+        for (CandidateRetriever retriever : candidateRetrieverBeans) {
+            retrievers.put(retriever.getName(), retriever);
+        }
+        candidateRetrievers = retrievers;
+        defaultRetriever = retrievers.get(candidateRetrieverName.trim().toLowerCase());
+        if (defaultRetriever == null) {
+            throw new IllegalStateException("Unknown app.match.candidate-retriever: " + candidateRetrieverName
+                    + " (available: " + String.join(", ", retrievers.keySet()) + ")");
+        }
+        
+        if (parallelScoringEnabled) {
+            int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+            scoringPool = new ForkJoinPool(threads, pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("match-scoring-" + thread.getPoolIndex());
+                return thread;
+            }, null, false);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (scoringPool != null) {
+            scoringPool.shutdownNow();
+        }
+    }
     
     /**
-     * Find matches for a given lost item
+     * Find matches for a given lost item, serving repeated requests from the match result cache
      */
     public List<MatchResultDto> findMatches(MatchRequestDto request) {
+        long started = System.nanoTime();
+        List<MatchResultDto> cached = matchResultCache.get(request);
+        if (cached != null) {
+            matchMetrics.recordFind(true, started);
+            return cached;
+        }
+        long cacheGeneration = matchResultCache.getGeneration();
+        
         // Get the lost item
-        Optional<LostItem> lostItemOpt = lostItemRepository.findById(request.getLostItemId());
+        Optional<LostItem> lostItemOpt = findLostItem(request.getLostItemId());
         if (!lostItemOpt.isPresent()) {
+            matchMetrics.recordFind(false, started);
             return Collections.emptyList();
         }
         
         LostItem lostItem = lostItemOpt.get();
+        List<MatchResultDto> matches = computeMatches(lostItem, request);
+        matches = matchResultCache.put(request, windowStart(lostItem.getDate(), request.getDaysBefore()),
+                windowEnd(lostItem.getDate(), request.getDaysAfter()), matches, cacheGeneration);
+        matchMetrics.recordFind(false, started);
+        return matches;
+    }
+    
+    /**
+     * Find matches for a given lost item, reporting a provisional best set each time a shard of candidates
+     * has been scored and refining it until every candidate is scored.
+     * Shards are formed from the candidates nearest in date first, so the first provisional set is already
+     * a good approximation. Category modes and cached results are reported once, as the final set.
+     * 
+     * @param request Match request
+     * @param listener Receives each provisional set with the number of candidates scored so far
+     * @return The final matches, the same as {@link #findMatches(MatchRequestDto)} returns
+     */
+    public List<MatchResultDto> streamMatches(MatchRequestDto request, MatchRefinementListener listener) {
+        List<MatchResultDto> cached = matchResultCache.get(request);
+        if (cached != null) {
+            listener.onRefinement(cached, cached.size(), cached.size());
+            return cached;
+        }
+        long cacheGeneration = matchResultCache.getGeneration();
         
-        // Initialize vectorizer if not already done
-        initializeVectorizer();
+        Optional<LostItem> lostItemOpt = findLostItem(request.getLostItemId());
+        if (!lostItemOpt.isPresent()) {
+            return Collections.emptyList();
+        }
+        LostItem lostItem = lostItemOpt.get();
         
-        // Get candidate found items based on filters
-        List<FoundItem> candidates = getCandidateFoundItems(lostItem, request);
+        MatchRequestDto.CategoryMode categoryMode = request.getCategoryMode() != null
+                ? request.getCategoryMode() : MatchRequestDto.CategoryMode.ALL;
+        List<MatchResultDto> matches;
+        if (categoryMode != MatchRequestDto.CategoryMode.ALL) {
+            matches = computeMatches(lostItem, request);
+            listener.onRefinement(matches, matches.size(), matches.size());
+        } else {
+            matches = refineMatches(lostItem, request, listener);
+        }
+        return matchResultCache.put(request, windowStart(lostItem.getDate(), request.getDaysBefore()),
+                windowEnd(lostItem.getDate(), request.getDaysAfter()), matches, cacheGeneration);
+    }
+    
+    /**
+     * Score the candidates of a lost item shard by shard, reporting the merged top K whenever it changes
+     */
+    private List<MatchResultDto> refineMatches(LostItem lostItem, MatchRequestDto request,
+                                               MatchRefinementListener listener) {
+        matchIndexService.initialize();
+        MatchIndexSnapshot snapshot = matchIndexService.getSnapshot();
+        int limit = resolveLimit(request.getLimit());
+        double minScore = resolveMinScore(request.getMinScore());
         
-        // Calculate match scores and create results
-        List<MatchResultDto> matches = candidates.stream()
-                .map(foundItem -> calculateMatch(lostItem, foundItem))
-                .filter(match -> match.getMatchScore() > 0.0) // Only include matches with score > 0
-                .sorted((a, b) -> Double.compare(b.getMatchScore(), a.getMatchScore())) // Sort by score descending
-                .limit(10) // Top 10 matches
-                .collect(Collectors.toList());
+        List<FoundItemCandidateDto> candidates = new ArrayList<>(
+                findCandidateFoundItems(lostItem, request, null, snapshot, limit));
+        LocalDateTime lostDate = lostItem.getDate();
+        candidates.sort(Comparator.comparingLong(foundItem -> Math.abs(
+                java.time.Duration.between(lostDate, foundItem.getDate()).getSeconds())));
+        
+        MatchQuery query = createQuery(FOUND_ITEMS, lostItem.getDescription(), lostItem.getLocation(), lostDate,
+                snapshot, new ConcurrentHashMap<>());
+        matchMetrics.recordCandidates(candidates.size());
+        AtomicLong sharedThreshold = new AtomicLong(Double.doubleToLongBits(Double.NEGATIVE_INFINITY));
+        int shardSize = Math.max(parallelShardSize, 1);
+        
+        List<ScoringTask<FoundItemCandidateDto>> shards = new ArrayList<>();
+        for (int from = 0; from < candidates.size(); from += shardSize) {
+            shards.add(new ScoringTask<>(FOUND_ITEMS, query, candidates, from,
+                    Math.min(from + shardSize, candidates.size()), limit, minScore, sharedThreshold));
+        }
+        
+        TopKCollector<ScoredCandidate<FoundItemCandidateDto>> topMatches = new TopKCollector<>(limit);
+        List<Long> reportedIds = null;
+        int scored = 0;
+        
+        // Shards are scored on the dedicated pool when there are several of them, and merged as they finish
+        CompletionService<TopKCollector<ScoredCandidate<FoundItemCandidateDto>>> completionService =
+                scoringPool != null && shards.size() > 1 ? new ExecutorCompletionService<>(scoringPool) : null;
+        if (completionService != null) {
+            for (ScoringTask<FoundItemCandidateDto> shard : shards) {
+                completionService.submit(shard::scoreSequentially);
+            }
+        }
         
+        for (ScoringTask<FoundItemCandidateDto> shard : shards) {
+            TopKCollector<ScoredCandidate<FoundItemCandidateDto>> shardMatches;
+            if (completionService != null) {
+                try {
+                    shardMatches = completionService.take().get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while scoring matches", e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Scoring matches failed: " + e.getCause().getMessage(), e.getCause());
+                }
+            } else {
+                shardMatches = shard.scoreSequentially();
+            }
+            topMatches.addAll(shardMatches);
+            scored += shard.to - shard.from;
+            
+            // Only report the provisional set when its members or order changed
+            List<ScoredCandidate<FoundItemCandidateDto>> ranked = topMatches.toSortedList();
+            List<Long> rankedIds = ranked.stream().map(match -> match.item.getId()).collect(Collectors.toList());
+            if (!rankedIds.equals(reportedIds) && scored < candidates.size()) {
+                listener.onRefinement(toMatchResults(ranked), scored, candidates.size());
+                reportedIds = rankedIds;
+            }
+        }
+        
+        List<MatchResultDto> matches = toMatchResults(topMatches.toSortedList());
+        listener.onRefinement(matches, candidates.size(), candidates.size());
         return matches;
     }
     
     /**
-     * Initialize the text vectorizer with all descriptions from the database
+     * Compute the matches of a lost item from scratch
      */
-    private void initializeVectorizer() {
-        if (vectorizerInitialized) {
-            return;
+    private List<MatchResultDto> computeMatches(LostItem lostItem, MatchRequestDto request) {
+        // Request the match index build if not already done, and use whatever snapshot is published.
+        // Until the first snapshot exists, matching falls back to simple text similarity without pruning.
+        matchIndexService.initialize();
+        MatchIndexSnapshot snapshot = matchIndexService.getSnapshot();
+        
+        int limit = resolveLimit(request.getLimit());
+        double minScore = resolveMinScore(request.getMinScore());
+        MatchRequestDto.CategoryMode categoryMode = request.getCategoryMode() != null
+                ? request.getCategoryMode() : MatchRequestDto.CategoryMode.ALL;
+        if (categoryMode != MatchRequestDto.CategoryMode.ALL) {
+            return findMatchesByCategory(lostItem, request, categoryMode, snapshot, limit, minScore);
         }
         
-        try {
-            // Get all descriptions from lost and found items
-            List<String> allDescriptions = new ArrayList<>();
+        // Get candidate found items sharing a term with the lost item, based on filters
+        List<FoundItemCandidateDto> candidates = findCandidateFoundItems(lostItem, request, null, snapshot, limit);
+        
+        List<ScoredCandidate<FoundItemCandidateDto>> topMatches = rankCandidates(FOUND_ITEMS, lostItem.getDescription(),
+                lostItem.getLocation(), lostItem.getDate(), candidates, snapshot, new ConcurrentHashMap<>(),
+                limit, minScore);
+        
+        return toMatchResults(topMatches);
+    }
+    
+    /**
+     * Find matches among found items of the lost item's category shard, widening to the related
+     * category shards only when the same category yields fewer matches than the limit
+     */
+    private List<MatchResultDto> findMatchesByCategory(LostItem lostItem, MatchRequestDto request,
+                                                       MatchRequestDto.CategoryMode categoryMode,
+                                                       MatchIndexSnapshot snapshot, int limit, double minScore) {
+        Map<Long, SparseVector> vectorCache = new ConcurrentHashMap<>();
+        String category = MatchIndexService.normalizeCategory(lostItem.getCategory());
+        Set<String> sameCategory = Collections.singleton(category);
+        
+        List<ScoredCandidate<FoundItemCandidateDto>> topMatches = rankCandidates(FOUND_ITEMS, lostItem.getDescription(),
+                lostItem.getLocation(), lostItem.getDate(), findCandidateFoundItems(lostItem, request, sameCategory, snapshot, limit),
+                snapshot, vectorCache, limit, minScore);
+        
+        Set<String> related = relatedCategories.getOrDefault(category, Collections.emptySet());
+        if (categoryMode == MatchRequestDto.CategoryMode.RELATED && topMatches.size() < limit && !related.isEmpty()) {
+            List<ScoredCandidate<FoundItemCandidateDto>> relatedMatches = rankCandidates(FOUND_ITEMS,
+                    lostItem.getDescription(),
+                    lostItem.getLocation(), lostItem.getDate(), findCandidateFoundItems(lostItem, request, related, snapshot, limit),
+                    snapshot, vectorCache, limit, minScore);
             
-            // Add lost item descriptions
-            List<LostItem> allLostItems = lostItemRepository.findAll();
-            for (LostItem item : allLostItems) {
-                if (item.getDescription() != null && !item.getDescription().trim().isEmpty()) {
-                    allDescriptions.add(item.getDescription());
-                }
+            TopKCollector<ScoredCandidate<FoundItemCandidateDto>> merged = new TopKCollector<>(limit);
+            for (ScoredCandidate<FoundItemCandidateDto> match : topMatches) {
+                merged.offer(match, match.matchScore);
             }
-            
-            // Add found item descriptions
-            List<FoundItem> allFoundItems = foundItemRepository.findAll();
-            for (FoundItem item : allFoundItems) {
-                if (item.getDescription() != null && !item.getDescription().trim().isEmpty()) {
-                    allDescriptions.add(item.getDescription());
+            for (ScoredCandidate<FoundItemCandidateDto> match : relatedMatches) {
+                merged.offer(match, match.matchScore);
+            }
+            topMatches = merged.toSortedList();
+        }
+        
+        return toMatchResults(topMatches);
+    }
+    
+    /**
+     * Find open lost items matching a given found item (reverse direction).
+     * Lost items already closed by a CONFIRMED or RESOLVED match are never suggested.
+     */
+    public List<LostItemMatchResultDto> findLostItemMatches(ReverseMatchRequestDto request) {
+        long started = System.nanoTime();
+        
+        // Get the found item
+        Optional<FoundItem> foundItemOpt = foundItemRepository.findById(request.getFoundItemId());
+        matchMetrics.recordPhase(MatchMetrics.Phase.ITEM_LOOKUP, started);
+        if (!foundItemOpt.isPresent()) {
+            matchMetrics.recordReverse(started);
+            return Collections.emptyList();
+        }
+        
+        FoundItem foundItem = foundItemOpt.get();
+        
+        matchIndexService.initialize();
+        MatchIndexSnapshot snapshot = matchIndexService.getSnapshot();
+        
+        // Get candidate lost items based on filters
+        LocalDateTime startDate = windowStart(foundItem.getDate(), request.getDaysBefore());
+        LocalDateTime endDate = windowEnd(foundItem.getDate(), request.getDaysAfter());
+        long queryStarted = System.nanoTime();
+        List<LostItem> candidates = excludeClosedLostItems(filterByIndexedTerms(LOST_ITEMS, foundItem.getDescription(),
+                findLostItemsInWindow(request.getLocationFilter(), startDate, endDate), null, snapshot));
+        matchMetrics.recordPhase(MatchMetrics.Phase.CANDIDATE_QUERY, queryStarted);
+        
+        List<ScoredCandidate<LostItem>> topMatches = rankCandidates(LOST_ITEMS, foundItem.getDescription(),
+                foundItem.getLocation(), foundItem.getDate(), candidates, snapshot, new ConcurrentHashMap<>(),
+                resolveLimit(request.getLimit()), resolveMinScore(request.getMinScore()));
+        
+        List<LostItemMatchResultDto> matches = toLostItemMatchResults(topMatches);
+        matchMetrics.recordReverse(started);
+        return matches;
+    }
+    
+    /**
+     * Find matches for many lost items at once, collecting the results grouped by lost item id in request order
+     */
+    public Map<Long, List<MatchResultDto>> findMatchesBatch(BatchMatchRequestDto request) {
+        long started = System.nanoTime();
+        Map<Long, List<MatchResultDto>> computed = new HashMap<>();
+        computeMatchesBatch(request, computed::put);
+        
+        Map<Long, List<MatchResultDto>> results = new LinkedHashMap<>();
+        for (Long lostItemId : request.getLostItemIds()) {
+            results.put(lostItemId, computed.get(lostItemId));
+        }
+        matchMetrics.recordBatch(false, started);
+        return results;
+    }
+    
+    /**
+     * Find matches for many lost items at once.
+     * Lost items are ranked in date order, in chunks whose date windows overlap and together span at most
+     * app.match.batch.max-window-days; each chunk's candidates are loaded with one query over its windows,
+     * and candidate vectors are computed at most once per batch. Each lost item's results are handed to the
+     * listener as soon as they are ranked; unknown lost item ids get an empty list first.
+     * No transaction is held across the batch: every query runs in its own, so the listener may write to a slow
+     * client without keeping a database connection.
+     */
+    public void findMatchesBatch(BatchMatchRequestDto request, BiConsumer<Long, List<MatchResultDto>> resultListener) {
+        long started = System.nanoTime();
+        computeMatchesBatch(request, resultListener);
+        matchMetrics.recordBatch(true, started);
+    }
+    
+    private void computeMatchesBatch(BatchMatchRequestDto request,
+                                     BiConsumer<Long, List<MatchResultDto>> resultListener) {
+        Set<Long> lostItemIds = new LinkedHashSet<>(request.getLostItemIds());
+        long lookupStarted = System.nanoTime();
+        List<LostItem> lostItems = new ArrayList<>(lostItemRepository.findAllById(lostItemIds));
+        matchMetrics.recordPhase(MatchMetrics.Phase.ITEM_LOOKUP, lookupStarted);
+        
+        Set<Long> unknownIds = new LinkedHashSet<>(lostItemIds);
+        for (LostItem lostItem : lostItems) {
+            unknownIds.remove(lostItem.getId());
+        }
+        for (Long lostItemId : unknownIds) {
+            resultListener.accept(lostItemId, Collections.emptyList());
+        }
+        if (lostItems.isEmpty()) {
+            return;
+        }
+        
+        matchIndexService.initialize();
+        MatchIndexSnapshot snapshot = matchIndexService.getSnapshot();
+        Map<Long, SparseVector> vectorCache = new ConcurrentHashMap<>();
+        int limit = resolveLimit(request.getLimit());
+        double minScore = resolveMinScore(request.getMinScore());
+        long maxWindowDays = Math.max(batchMaxWindowDays, 1);
+        
+        lostItems.sort(Comparator.comparing(LostItem::getDate));
+        int from = 0;
+        while (from < lostItems.size()) {
+            // Extend the chunk while the next window overlaps it and the chunk stays within the maximum span
+            LocalDateTime chunkStart = windowStart(lostItems.get(from).getDate(), request.getDaysBefore());
+            LocalDateTime chunkEnd = windowEnd(lostItems.get(from).getDate(), request.getDaysAfter());
+            int to = from + 1;
+            while (to < lostItems.size()) {
+                LocalDateTime startDate = windowStart(lostItems.get(to).getDate(), request.getDaysBefore());
+                LocalDateTime endDate = windowEnd(lostItems.get(to).getDate(), request.getDaysAfter());
+                if (startDate.isAfter(chunkEnd) || endDate.isAfter(chunkStart.plusDays(maxWindowDays))) {
+                    break;
                 }
+                chunkEnd = endDate.isAfter(chunkEnd) ? endDate : chunkEnd;
+                to++;
             }
             
-            // Initialize vectorizer if we have descriptions
-            if (!allDescriptions.isEmpty()) {
-                textVectorizer = new TextVectorizer();
-                textVectorizer.fit(allDescriptions);
-                vectorizerInitialized = true;
+            // Sorted by date for per-item slicing
+            long queryStarted = System.nanoTime();
+            List<FoundItemCandidateDto> chunkCandidates = new ArrayList<>(databaseCandidateRetriever.findInWindow(
+                    request.getLocationFilter(), chunkStart, chunkEnd));
+            chunkCandidates.sort(Comparator.comparing(FoundItemCandidateDto::getDate));
+            matchMetrics.recordPhase(MatchMetrics.Phase.CANDIDATE_QUERY, queryStarted);
+            
+            for (LostItem lostItem : lostItems.subList(from, to)) {
+                List<FoundItemCandidateDto> candidates = sliceByDate(chunkCandidates,
+                        windowStart(lostItem.getDate(), request.getDaysBefore()),
+                        windowEnd(lostItem.getDate(), request.getDaysAfter()));
+                resultListener.accept(lostItem.getId(),
+                        rankFoundItems(lostItem, candidates, snapshot, vectorCache, limit, minScore));
             }
-        } catch (Exception e) {
-            // If initialization fails, we'll fall back to simple text similarity
-            System.err.println("Failed to initialize text vectorizer: " + e.getMessage());
+            from = to;
         }
     }
     
     /**
-     * Get candidate found items based on location and date filters
+     * Prune, score and rank the candidate found items of one lost item
+     */
+    private List<MatchResultDto> rankFoundItems(LostItem lostItem, List<FoundItemCandidateDto> candidates,
+                                                MatchIndexSnapshot snapshot, Map<Long, SparseVector> vectorCache,
+                                                int limit, double minScore) {
+        candidates = filterByIndexedTerms(FOUND_ITEMS, lostItem.getDescription(), candidates, null, snapshot);
+        
+        List<ScoredCandidate<FoundItemCandidateDto>> topMatches = rankCandidates(FOUND_ITEMS, lostItem.getDescription(),
+                lostItem.getLocation(), lostItem.getDate(), candidates, snapshot, vectorCache, limit, minScore);
+        
+        // Create result DTOs for the winners only
+        return toMatchResults(topMatches);
+    }
+    
+    /**
+     * Score and rank already pruned candidates of either kind against a query item, best first
      */
-    private List<FoundItem> getCandidateFoundItems(LostItem lostItem, MatchRequestDto request) {
-        LocalDateTime lostItemDate = lostItem.getDate();
+    private <T> List<ScoredCandidate<T>> rankCandidates(CandidateType<T> type, String description, String location,
+                                                        LocalDateTime date, List<T> candidates,
+                                                        MatchIndexSnapshot snapshot, Map<Long, SparseVector> vectorCache,
+                                                        int limit, double minScore) {
+        MatchQuery query = createQuery(type, description, location, date, snapshot, vectorCache);
+        matchMetrics.recordCandidates(candidates.size());
         
-        // Calculate date range
-        LocalDateTime startDate = lostItemDate;
-        LocalDateTime endDate = lostItemDate;
+        // Calculate match scores, keeping only the top K above the minimum score.
+        // Large candidate sets are split into shards scored on the dedicated pool and merged.
+        long scoringStarted = System.nanoTime();
+        ScoringTask<T> scoringTask = new ScoringTask<>(type, query, candidates, 0, candidates.size(), limit, minScore,
+                new AtomicLong(Double.doubleToLongBits(Double.NEGATIVE_INFINITY)));
+        TopKCollector<ScoredCandidate<T>> topMatches = scoringPool != null && candidates.size() >= parallelThreshold
+                ? scoringPool.invoke(scoringTask)
+                : scoringTask.scoreSequentially();
+        matchMetrics.recordPhase(MatchMetrics.Phase.SCORING, scoringStarted);
         
-        if (request.getDaysBefore() != null) {
-            startDate = lostItemDate.minusDays(request.getDaysBefore());
+        // Sorted by score descending
+        long sortStarted = System.nanoTime();
+        List<ScoredCandidate<T>> ranked = topMatches.toSortedList();
+        matchMetrics.recordPhase(MatchMetrics.Phase.SORT, sortStarted);
+        return ranked;
+    }
+    
+    /**
+     * Prepare everything scoring needs about the query item, once for the whole candidate set
+     */
+    private <T> MatchQuery createQuery(CandidateType<T> type, String description, String location, LocalDateTime date,
+                                       MatchIndexSnapshot snapshot, Map<Long, SparseVector> vectorCache) {
+        long started = System.nanoTime();
+        SparseVector queryVector = vectorizeDescription(description, snapshot);
+        if (queryVector == null && description != null) {
+            matchMetrics.recordQueryFallback();
+        }
+        
+        // Upper bound of the text similarity with any indexed candidate, for skipping hopeless candidates
+        double textSimilarityBound = queryVector != null ? type.similarityBound(snapshot, queryVector) : 1.0;
+        matchMetrics.recordPhase(MatchMetrics.Phase.VECTORIZER, started);
+        
+        return new MatchQuery(description, location, date, queryVector, textSimilarityBound, snapshot, vectorCache);
+    }
+    
+    /**
+     * Resolve the requested number of matches, defaulting to 10 and capped at 100
+     */
+    private int resolveLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
         }
-        if (request.getDaysAfter() != null) {
-            endDate = lostItemDate.plusDays(request.getDaysAfter());
+        return Math.min(limit, MAX_LIMIT);
+    }
+    
+    /**
+     * Resolve the requested minimum score, defaulting to 0
+     */
+    private double resolveMinScore(Double minScore) {
+        return minScore != null ? minScore : 0.0;
+    }
+    
+    /**
+     * Get the candidate found items of a lost item from the retriever named in the request (the configured one
+     * when none is named), restricted to the given normalized categories (all categories when null)
+     */
+    private List<FoundItemCandidateDto> findCandidateFoundItems(LostItem lostItem, MatchRequestDto request,
+                                                                Collection<String> categories,
+                                                                MatchIndexSnapshot snapshot, int limit) {
+        CandidateRetriever retriever = resolveCandidateRetriever(request.getRetriever());
+        long started = System.nanoTime();
+        List<FoundItemCandidateDto> candidates = retriever.findCandidates(lostItem,
+                windowStart(lostItem.getDate(), request.getDaysBefore()),
+                windowEnd(lostItem.getDate(), request.getDaysAfter()),
+                request.getLocationFilter(), categories, snapshot, limit);
+        matchMetrics.recordPhase(MatchMetrics.Phase.CANDIDATE_QUERY, started);
+        return candidates;
+    }
+    
+    /**
+     * Load the lost item a match request is for
+     */
+    private Optional<LostItem> findLostItem(Long lostItemId) {
+        long started = System.nanoTime();
+        Optional<LostItem> lostItem = lostItemRepository.findById(lostItemId);
+        matchMetrics.recordPhase(MatchMetrics.Phase.ITEM_LOOKUP, started);
+        return lostItem;
+    }
+    
+    /**
+     * Look up a candidate retriever by name, falling back to the configured one when the name is blank
+     */
+    private CandidateRetriever resolveCandidateRetriever(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return defaultRetriever;
         }
         
-        // Get candidates based on filters
-        if (request.getLocationFilter() != null && !request.getLocationFilter().trim().isEmpty()) {
-            // Filter by location and date range
-            return foundItemRepository.findByLocationContainingIgnoreCaseAndDateBetween(
-                    request.getLocationFilter(), startDate, endDate);
+        CandidateRetriever retriever = candidateRetrievers.get(name.trim().toLowerCase());
+        if (retriever == null) {
+            throw new IllegalArgumentException("Unknown candidate retriever: " + name
+                    + " (available: " + String.join(", ", candidateRetrievers.keySet()) + ")");
+        }
+        return retriever;
+    }
+    
+    /**
+     * Query lost items in a date range, optionally filtered by location
+     */
+    private List<LostItem> findLostItemsInWindow(String locationFilter, LocalDateTime startDate, LocalDateTime endDate) {
+        if (locationFilter != null && !locationFilter.trim().isEmpty()) {
+            return lostItemRepository.findByLocationContainingIgnoreCaseAndDateBetween(
+                    locationFilter, startDate, endDate);
         } else {
-            // Filter only by date range
-            return foundItemRepository.findByDateBetween(startDate, endDate);
+            return lostItemRepository.findByDateBetween(startDate, endDate);
+        }
+    }
+    
+    /**
+     * Drop the lost items whose case is already closed by a CONFIRMED or RESOLVED match
+     */
+    private List<LostItem> excludeClosedLostItems(List<LostItem> lostItems) {
+        if (lostItems.isEmpty()) {
+            return lostItems;
+        }
+        
+        Set<Long> closedIds = new HashSet<>(matchRepository.findLostItemIdsWithStatusIn(
+                lostItems.stream().map(LostItem::getId).collect(Collectors.toList()), MatchStoreService.CLOSED_STATUSES));
+        if (closedIds.isEmpty()) {
+            return lostItems;
+        }
+        return lostItems.stream()
+                .filter(lostItem -> !closedIds.contains(lostItem.getId()))
+                .collect(Collectors.toList());
+    }
+    
+    private LocalDateTime windowStart(LocalDateTime date, Integer daysBefore) {
+        return daysBefore != null ? date.minusDays(daysBefore) : date;
+    }
+    
+    private LocalDateTime windowEnd(LocalDateTime date, Integer daysAfter) {
+        return daysAfter != null ? date.plusDays(daysAfter) : date;
+    }
+    
+    /**
+     * Select the items dated within [startDate, endDate] from a list sorted by date
+     */
+    private List<FoundItemCandidateDto> sliceByDate(List<FoundItemCandidateDto> sortedItems, LocalDateTime startDate,
+                                                    LocalDateTime endDate) {
+        int from = lowerBound(sortedItems, startDate, false);
+        int to = lowerBound(sortedItems, endDate, true);
+        return from < to ? sortedItems.subList(from, to) : Collections.emptyList();
+    }
+    
+    /**
+     * Index of the first item dated at or after (or, when inclusive, strictly after) the given date
+     */
+    private int lowerBound(List<FoundItemCandidateDto> sortedItems, LocalDateTime date, boolean inclusive) {
+        int low = 0;
+        int high = sortedItems.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = sortedItems.get(middle).getDate().compareTo(date);
+            if (comparison < 0 || (inclusive && comparison == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
         }
+        return low;
     }
     
     /**
-     * Calculate match score between lost and found items
+     * Keep only the candidates whose descriptions share at least one term with the query description,
+     * searching only the given category shards (all shards when null).
+     * Candidates saved after the snapshot was built cannot be pruned and are always kept.
      */
-    private MatchResultDto calculateMatch(LostItem lostItem, FoundItem foundItem) {
+    private <T> List<T> filterByIndexedTerms(CandidateType<T> type, String description, List<T> candidates,
+                                             Collection<String> categories, MatchIndexSnapshot snapshot) {
+        Set<String> queryTerms = Tokenizer.termSet(description);
+        if (snapshot == null || queryTerms.isEmpty()) {
+            // Nothing to prune on, every candidate has to be scored
+            return candidates;
+        }
+        
+        Set<Long> matchingIds = type.search(snapshot, queryTerms, categories);
+        return candidates.stream()
+                .filter(candidate -> {
+                    Long id = type.id.apply(candidate);
+                    return matchingIds.contains(id) || !type.contains(snapshot, id);
+                })
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Calculate match score between a query item and a candidate
+     */
+    private <T> ScoredCandidate<T> calculateMatch(CandidateType<T> type, MatchQuery query, T candidate) {
+        // Calculate scores
+        double locationScore = calculateLocationScore(query.location, type.location.apply(candidate));
+        double dateScore = calculateDateScore(query.date, type.date.apply(candidate));
+        
+        return calculateMatch(type, query, candidate, locationScore, dateScore);
+    }
+    
+    /**
+     * Calculate match score between a query item and a candidate whose location and date scores are known
+     */
+    private <T> ScoredCandidate<T> calculateMatch(CandidateType<T> type, MatchQuery query, T candidate,
+                                                  double locationScore, double dateScore) {
+        double textSimilarity = calculateTextSimilarity(type, query, candidate);
+        
+        // Calculate overall match score: 0.6 * textSimilarity + 0.3 * locationScore + 0.1 * dateScore
+        double matchScore = 0.6 * textSimilarity + 0.3 * locationScore + 0.1 * dateScore;
+        
+        return new ScoredCandidate<>(candidate, textSimilarity, locationScore, dateScore, matchScore);
+    }
+    
+    /**
+     * Create the match result DTOs for ranked found items. Candidates only carry the scoring fields, so the
+     * ranked items are loaded in full here, with the contact details of their finders in a second query instead
+     * of initializing each item's lazy user. Items deleted since they were scored are left out.
+     */
+    private List<MatchResultDto> toMatchResults(List<ScoredCandidate<FoundItemCandidateDto>> ranked) {
+        long started = System.nanoTime();
+        List<Long> ids = ranked.stream().map(candidate -> candidate.item.getId()).collect(Collectors.toList());
+        Map<Long, FoundItem> foundItems = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (FoundItem foundItem : foundItemRepository.findAllById(ids)) {
+                foundItems.put(foundItem.getId(), foundItem);
+            }
+        }
+        Map<Long, UserContactDto> contacts = findUserContacts(ids, foundItemRepository::findUserContactsByIdIn);
+        
+        List<MatchResultDto> results = ranked.stream()
+                .filter(candidate -> foundItems.containsKey(candidate.item.getId()))
+                .map(candidate -> toMatchResult(candidate, foundItems.get(candidate.item.getId()),
+                        contacts.get(candidate.item.getId())))
+                .collect(Collectors.toList());
+        matchMetrics.recordPhase(MatchMetrics.Phase.RESULTS, started);
+        return results;
+    }
+    
+    /**
+     * Create the match result DTOs for ranked lost items, loading the contact details of their owners
+     * in a single query
+     */
+    private List<LostItemMatchResultDto> toLostItemMatchResults(List<ScoredCandidate<LostItem>> ranked) {
+        long started = System.nanoTime();
+        Map<Long, UserContactDto> contacts = findUserContacts(
+                ranked.stream().map(candidate -> candidate.item.getId()).collect(Collectors.toList()),
+                lostItemRepository::findUserContactsByIdIn);
+        
+        List<LostItemMatchResultDto> results = ranked.stream()
+                .map(candidate -> toLostItemMatchResult(candidate, contacts.get(candidate.item.getId())))
+                .collect(Collectors.toList());
+        matchMetrics.recordPhase(MatchMetrics.Phase.RESULTS, started);
+        return results;
+    }
+    
+    /**
+     * Run a contact details query for the given item ids, keyed by item id
+     */
+    private static Map<Long, UserContactDto> findUserContacts(List<Long> itemIds,
+                                                              Function<Collection<Long>, List<UserContactDto>> query) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        
+        Map<Long, UserContactDto> contacts = new HashMap<>();
+        for (UserContactDto contact : query.apply(itemIds)) {
+            contacts.put(contact.getItemId(), contact);
+        }
+        return contacts;
+    }
+    
+    /**
+     * Create the match result DTO for a scored found item
+     */
+    private MatchResultDto toMatchResult(ScoredCandidate<FoundItemCandidateDto> candidate, FoundItem foundItem,
+                                         UserContactDto contact) {
         MatchResultDto result = new MatchResultDto();
         
         // Set found item details
@@ -144,52 +791,102 @@ public class MatchService {
         result.setFoundItemCreatedAt(foundItem.getCreatedAt());
         
         // Set user details
-        if (foundItem.getUser() != null) {
-            result.setFoundByUserName(foundItem.getUser().getName());
-            result.setFoundByUserEmail(foundItem.getUser().getEmail());
-            result.setFoundByUserPhone(foundItem.getUser().getPhone());
+        if (contact != null) {
+            result.setFoundByUserName(contact.getName());
+            result.setFoundByUserEmail(contact.getEmail());
+            result.setFoundByUserPhone(contact.getPhone());
         }
         
-        // Calculate scores
-        double textSimilarity = calculateTextSimilarity(lostItem.getDescription(), foundItem.getDescription());
-        double locationScore = calculateLocationScore(lostItem.getLocation(), foundItem.getLocation());
-        double dateScore = calculateDateScore(lostItem.getDate(), foundItem.getDate());
+        result.setTextSimilarity(candidate.textSimilarity);
+        result.setLocationScore(candidate.locationScore);
+        result.setDateScore(candidate.dateScore);
+        result.setMatchScore(candidate.matchScore);
         
-        // Calculate overall match score: 0.6 * textSimilarity + 0.3 * locationScore + 0.1 * dateScore
-        double matchScore = 0.6 * textSimilarity + 0.3 * locationScore + 0.1 * dateScore;
+        return result;
+    }
+    
+    /**
+     * Create the match result DTO for a scored lost item
+     */
+    private LostItemMatchResultDto toLostItemMatchResult(ScoredCandidate<LostItem> candidate, UserContactDto contact) {
+        LostItem lostItem = candidate.item;
+        LostItemMatchResultDto result = new LostItemMatchResultDto();
+        
+        // Set lost item details
+        result.setLostItemId(lostItem.getId());
+        result.setLostItemTitle(lostItem.getTitle());
+        result.setLostItemDescription(lostItem.getDescription());
+        result.setLostItemCategory(lostItem.getCategory());
+        result.setLostItemLocation(lostItem.getLocation());
+        result.setLostItemDate(lostItem.getDate());
+        result.setLostItemImagePath(lostItem.getImagePath());
+        result.setLostItemCreatedAt(lostItem.getCreatedAt());
+        
+        // Set user details
+        if (contact != null) {
+            result.setLostByUserName(contact.getName());
+            result.setLostByUserEmail(contact.getEmail());
+            result.setLostByUserPhone(contact.getPhone());
+        }
         
-        result.setTextSimilarity(textSimilarity);
-        result.setLocationScore(locationScore);
-        result.setDateScore(dateScore);
-        result.setMatchScore(matchScore);
+        result.setTextSimilarity(candidate.textSimilarity);
+        result.setLocationScore(candidate.locationScore);
+        result.setDateScore(candidate.dateScore);
+        result.setMatchScore(candidate.matchScore);
         
         return result;
     }
     
+    /**
+     * Transform a description into a sparse TF-IDF vector, or null if the vectorizer is not available
+     */
+    private SparseVector vectorizeDescription(String description, MatchIndexSnapshot snapshot) {
+        if (description == null || snapshot == null || !snapshot.isVectorizerReady()) {
+            return null;
+        }
+        
+        try {
+            return snapshot.vectorize(description);
+        } catch (Exception e) {
+            System.err.println("TF-IDF vectorization failed, falling back to simple similarity: " + e.getMessage());
+            return null;
+        }
+    }
+    
     /**
      * Calculate text similarity between two descriptions using TF-IDF and cosine similarity
      */
-    private double calculateTextSimilarity(String description1, String description2) {
-        if (description1 == null || description2 == null) {
+    private <T> double calculateTextSimilarity(CandidateType<T> type, MatchQuery query, T candidate) {
+        String description1 = query.description;
+        // Null for candidates retrieved from the snapshot, whose text is scored from their indexed vectors
+        String description2 = type.description.apply(candidate);
+        if (description1 == null) {
             return 0.0;
         }
         
-        // If vectorizer is not initialized, fall back to simple Jaccard similarity
-        if (!vectorizerInitialized || textVectorizer == null) {
-            return calculateSimpleTextSimilarity(description1, description2);
+        // If the query description could not be vectorized, fall back to simple Jaccard similarity
+        if (query.vector == null) {
+            return description2 != null ? calculateSimpleTextSimilarity(description1, description2) : 0.0;
         }
         
         try {
-            // Transform descriptions to TF-IDF vectors
-            Map<String, Double> vector1 = textVectorizer.transform(description1);
-            Map<String, Double> vector2 = textVectorizer.transform(description2);
+            // Use the candidate's precomputed TF-IDF vector, or transform it once if the snapshot predates it
+            Long id = type.id.apply(candidate);
+            SparseVector vector2 = type.vector(query.snapshot, id);
+            if (vector2 == null) {
+                if (description2 == null) {
+                    return 0.0;
+                }
+                vector2 = query.vectorCache.computeIfAbsent(id, key -> query.snapshot.vectorize(description2));
+            }
             
             // Calculate cosine similarity
-            return CosineSimilarity.compute(vector1, vector2);
+            return CosineSimilarity.compute(query.vector, vector2);
         } catch (Exception e) {
             // Fall back to simple similarity if TF-IDF fails
+            matchMetrics.recordCandidateFallback();
             System.err.println("TF-IDF calculation failed, falling back to simple similarity: " + e.getMessage());
-            return calculateSimpleTextSimilarity(description1, description2);
+            return description2 != null ? calculateSimpleTextSimilarity(description1, description2) : 0.0;
         }
     }
     
@@ -197,40 +894,7 @@ public class MatchService {
      * Fallback method for simple text similarity (Jaccard similarity)
      */
     private double calculateSimpleTextSimilarity(String description1, String description2) {
-        if (description1 == null || description2 == null) {
-            return 0.0;
-        }
-        
-        // Tokenize and normalize text
-        Set<String> words1 = tokenizeAndNormalize(description1);
-        Set<String> words2 = tokenizeAndNormalize(description2);
-        
-        if (words1.isEmpty() && words2.isEmpty()) {
-            return 1.0;
-        }
-        if (words1.isEmpty() || words2.isEmpty()) {
-            return 0.0;
-        }
-        
-        // Calculate Jaccard similarity
-        Set<String> intersection = new HashSet<>(words1);
-        intersection.retainAll(words2);
-        
-        Set<String> union = new HashSet<>(words1);
-        union.addAll(words2);
-        
-        return (double) intersection.size() / union.size();
-    }
-    
-    /**
-     * Tokenize and normalize text (lowercase, remove punctuation)
-     */
-    private Set<String> tokenizeAndNormalize(String text) {
-        return Arrays.stream(text.toLowerCase()
-                .replaceAll("[^a-zA-Z0-9\\s]", " ") // Replace punctuation with spaces
-                .split("\\s+"))
-                .filter(word -> word.length() > 2) // Filter out short words
-                .collect(Collectors.toSet());
+        return JaccardSimilarity.compute(description1, description2);
     }
     
     /**
@@ -306,4 +970,242 @@ public class MatchService {
             return 0.0;
         }
     }
+    
+    /**
+     * Receiver of the provisional match sets of {@link #streamMatches}
+     */
+    public interface MatchRefinementListener {
+        
+        /**
+         * @param matches Best matches among the candidates scored so far, best first
+         * @param scoredCandidates Number of candidates scored so far
+         * @param totalCandidates Number of candidates to score
+         */
+        void onRefinement(List<MatchResultDto> matches, int scoredCandidates, int totalCandidates);
+    }
+    
+    /**
+     * Candidate kind descriptor giving uniform access to lost and found items and their index structures
+     */
+    private static final class CandidateType<T> {
+        private final boolean foundItems;
+        private final Function<T, Long> id;
+        private final Function<T, String> description;
+        private final Function<T, String> location;
+        private final Function<T, LocalDateTime> date;
+        
+        private CandidateType(boolean foundItems, Function<T, Long> id, Function<T, String> description,
+                              Function<T, String> location, Function<T, LocalDateTime> date) {
+            this.foundItems = foundItems;
+            this.id = id;
+            this.description = description;
+            this.location = location;
+            this.date = date;
+        }
+        
+        private Set<Long> search(MatchIndexSnapshot snapshot, Collection<String> terms, Collection<String> categories) {
+            if (categories == null) {
+                return foundItems ? snapshot.searchFoundItems(terms) : snapshot.searchLostItems(terms);
+            }
+            return foundItems ? snapshot.searchFoundItems(terms, categories) : snapshot.searchLostItems(terms, categories);
+        }
+        
+        private boolean contains(MatchIndexSnapshot snapshot, Long itemId) {
+            return foundItems ? snapshot.containsFoundItem(itemId) : snapshot.containsLostItem(itemId);
+        }
+        
+        private SparseVector vector(MatchIndexSnapshot snapshot, Long itemId) {
+            return foundItems ? snapshot.getFoundItemVector(itemId) : snapshot.getLostItemVector(itemId);
+        }
+        
+        private double similarityBound(MatchIndexSnapshot snapshot, SparseVector queryVector) {
+            return foundItems ? snapshot.getFoundItemSimilarityBound(queryVector)
+                    : snapshot.getLostItemSimilarityBound(queryVector);
+        }
+    }
+    
+    /**
+     * The item being matched, with everything scoring needs precomputed once per request
+     */
+    private static final class MatchQuery {
+        private final String description;
+        private final String location;
+        private final LocalDateTime date;
+        private final SparseVector vector;
+        private final double textSimilarityBound;
+        private final MatchIndexSnapshot snapshot;
+        private final Map<Long, SparseVector> vectorCache;
+        
+        private MatchQuery(String description, String location, LocalDateTime date, SparseVector vector,
+                           double textSimilarityBound, MatchIndexSnapshot snapshot,
+                           Map<Long, SparseVector> vectorCache) {
+            this.description = description;
+            this.location = location;
+            this.date = date;
+            this.vector = vector;
+            this.textSimilarityBound = textSimilarityBound;
+            this.snapshot = snapshot;
+            this.vectorCache = vectorCache;
+        }
+    }
+    
+    /**
+     * Score breakdown of a candidate item, kept until the top K are known
+     */
+    private static final class ScoredCandidate<T> {
+        private final T item;
+        private final double textSimilarity;
+        private final double locationScore;
+        private final double dateScore;
+        private final double matchScore;
+        
+        private ScoredCandidate(T item, double textSimilarity, double locationScore,
+                                double dateScore, double matchScore) {
+            this.item = item;
+            this.textSimilarity = textSimilarity;
+            this.locationScore = locationScore;
+            this.dateScore = dateScore;
+            this.matchScore = matchScore;
+        }
+    }
+    
+    /**
+     * Candidate with its cheap location and date scores and the upper bound of its overall match score
+     */
+    private static final class BoundedCandidate<T> {
+        private final T item;
+        private final double locationScore;
+        private final double dateScore;
+        private final double upperBound;
+        
+        private BoundedCandidate(T item, double locationScore, double dateScore, double upperBound) {
+            this.item = item;
+            this.locationScore = locationScore;
+            this.dateScore = dateScore;
+            this.upperBound = upperBound;
+        }
+    }
+    
+    /**
+     * Fork-join task scoring a range of candidates into a bounded top-K collector.
+     * Shards share the best top-K threshold reached so far: any shard's K-th best score is a lower bound
+     * of the final one, so candidates bounded below it can be skipped by every shard.
+     */
+    private final class ScoringTask<T> extends RecursiveTask<TopKCollector<ScoredCandidate<T>>> {
+        private final CandidateType<T> type;
+        private final MatchQuery query;
+        private final List<T> candidates;
+        private final int from;
+        private final int to;
+        private final int limit;
+        private final double minScore;
+        private final AtomicLong sharedThreshold;
+        
+        private ScoringTask(CandidateType<T> type, MatchQuery query, List<T> candidates,
+                            int from, int to, int limit, double minScore, AtomicLong sharedThreshold) {
+            this.type = type;
+            this.query = query;
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+            this.limit = limit;
+            this.minScore = minScore;
+            this.sharedThreshold = sharedThreshold;
+        }
+        
+        @Override
+        protected TopKCollector<ScoredCandidate<T>> compute() {
+            if (to - from <= Math.max(parallelShardSize, 1)) {
+                return scoreSequentially();
+            }
+            
+            int middle = (from + to) >>> 1;
+            ScoringTask<T> left = new ScoringTask<>(type, query, candidates, from, middle, limit, minScore,
+                    sharedThreshold);
+            ScoringTask<T> right = new ScoringTask<>(type, query, candidates, middle, to, limit, minScore,
+                    sharedThreshold);
+            left.fork();
+            TopKCollector<ScoredCandidate<T>> result = right.compute();
+            result.addAll(left.join());
+            return result;
+        }
+        
+        private TopKCollector<ScoredCandidate<T>> scoreSequentially() {
+            if (maxScorePruningEnabled) {
+                return scoreWithPruning();
+            }
+            
+            TopKCollector<ScoredCandidate<T>> topMatches = new TopKCollector<>(limit);
+            for (int i = from; i < to; i++) {
+                ScoredCandidate<T> candidate = calculateMatch(type, query, candidates.get(i));
+                // Only include matches with score > 0
+                if (candidate.matchScore > 0.0 && candidate.matchScore >= minScore) {
+                    topMatches.offer(candidate, candidate.matchScore);
+                }
+            }
+            matchMetrics.recordScored(to - from);
+            return topMatches;
+        }
+        
+        /**
+         * Score candidates in decreasing order of their score upper bound, computing the text similarity
+         * only while the bound can still beat the top-K threshold and the minimum score
+         */
+        private TopKCollector<ScoredCandidate<T>> scoreWithPruning() {
+            List<BoundedCandidate<T>> boundedCandidates = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                boundedCandidates.add(bound(candidates.get(i)));
+            }
+            boundedCandidates.sort((a, b) -> Double.compare(b.upperBound, a.upperBound));
+            
+            TopKCollector<ScoredCandidate<T>> topMatches = new TopKCollector<>(limit);
+            int scored = 0;
+            for (BoundedCandidate<T> bounded : boundedCandidates) {
+                // Every remaining candidate has a lower bound, so none of them can qualify either
+                double upperBound = bounded.upperBound + BOUND_TOLERANCE;
+                if (upperBound <= 0.0 || upperBound < minScore || upperBound <= threshold(topMatches)) {
+                    break;
+                }
+                
+                ScoredCandidate<T> candidate = calculateMatch(type, query, bounded.item,
+                        bounded.locationScore, bounded.dateScore);
+                scored++;
+                if (candidate.matchScore > 0.0 && candidate.matchScore >= minScore
+                        && topMatches.offer(candidate, candidate.matchScore)) {
+                    raiseSharedThreshold(topMatches.threshold());
+                }
+            }
+            matchMetrics.recordScored(scored);
+            return topMatches;
+        }
+        
+        /**
+         * Compute the cheap location and date scores of a candidate and bound its overall match score
+         */
+        private BoundedCandidate<T> bound(T candidate) {
+            double locationScore = calculateLocationScore(query.location, type.location.apply(candidate));
+            double dateScore = calculateDateScore(query.date, type.date.apply(candidate));
+            
+            // Candidates indexed after the snapshot are not covered by its term bounds
+            boolean indexed = query.snapshot != null && type.vector(query.snapshot, type.id.apply(candidate)) != null;
+            double textBound = indexed ? query.textSimilarityBound : 1.0;
+            
+            double upperBound = 0.6 * textBound + 0.3 * locationScore + 0.1 * dateScore;
+            return new BoundedCandidate<>(candidate, locationScore, dateScore, upperBound);
+        }
+        
+        private double threshold(TopKCollector<ScoredCandidate<T>> topMatches) {
+            return Math.max(topMatches.threshold(), Double.longBitsToDouble(sharedThreshold.get()));
+        }
+        
+        private void raiseSharedThreshold(double threshold) {
+            while (true) {
+                long current = sharedThreshold.get();
+                if (threshold <= Double.longBitsToDouble(current)
+                        || sharedThreshold.compareAndSet(current, Double.doubleToLongBits(threshold))) {
+                    return;
+                }
+            }
+        }
+    }
 }
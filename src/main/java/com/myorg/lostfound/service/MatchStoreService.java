@@ -0,0 +1,166 @@
+package com.myorg.lostfound.service;
+
+import com.myorg.lostfound.dto.LostItemMatchResultDto;
+import com.myorg.lostfound.dto.MatchResultDto;
+import com.myorg.lostfound.model.Match;
+import com.myorg.lostfound.repository.FoundItemRepository;
+import com.myorg.lostfound.repository.LostItemRepository;
+import com.myorg.lostfound.repository.MatchRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service writing computed match results into the matches table.
+ * Computed matches are stored as PENDING; matches already confirmed, rejected or resolved by staff are never modified.
+ */
+@Service
+public class MatchStoreService {
+    
+    /**
+     * Statuses closing the case of a lost item: it gets no new suggestions once one of its matches has one
+     */
+    static final List<Match.MatchStatus> CLOSED_STATUSES =
+            Arrays.asList(Match.MatchStatus.CONFIRMED, Match.MatchStatus.RESOLVED);
+    
+    @Autowired
+    private LostItemRepository lostItemRepository;
+    
+    @Autowired
+    private FoundItemRepository foundItemRepository;
+    
+    @Autowired
+    private MatchRepository matchRepository;
+    
+    /**
+     * Replace the PENDING matches of a lost item with its current top matches
+     */
+    @Transactional
+    public void replacePendingMatches(Long lostItemId, List<MatchResultDto> results) {
+        Map<Long, Match> existing = indexMatches(matchRepository.findByLostItemId(lostItemId), true);
+        
+        List<Match> toSave = new ArrayList<>();
+        for (MatchResultDto result : results) {
+            Match match = existing.remove(result.getFoundItemId());
+            if (match == null) {
+                toSave.add(createPendingMatch(lostItemId, result.getFoundItemId(), result.getMatchScore()));
+            } else if (match.getStatus() == Match.MatchStatus.PENDING) {
+                match.setMatchScore(result.getMatchScore());
+                toSave.add(match);
+            }
+        }
+        matchRepository.saveAll(toSave);
+        
+        // Drop PENDING matches that fell out of the top K
+        List<Match> stale = existing.values().stream()
+                .filter(match -> match.getStatus() == Match.MatchStatus.PENDING)
+                .collect(Collectors.toList());
+        matchRepository.deleteAll(stale);
+    }
+    
+    /**
+     * Add or update the PENDING matches between a found item and the lost items it matches, then trim the
+     * PENDING matches of each of those lost items back to their best {@code limit}.
+     * Lost items whose case is already closed by a CONFIRMED or RESOLVED match are skipped.
+     */
+    @Transactional
+    public void addPendingMatches(Long foundItemId, List<LostItemMatchResultDto> results, int limit) {
+        if (results.isEmpty()) {
+            return;
+        }
+        
+        Set<Long> lostItemIds = results.stream()
+                .map(LostItemMatchResultDto::getLostItemId)
+                .collect(Collectors.toSet());
+        Set<Long> closedLostItemIds = new HashSet<>(
+                matchRepository.findLostItemIdsWithStatusIn(lostItemIds, CLOSED_STATUSES));
+        Map<Long, Match> existing = indexMatches(matchRepository.findByFoundItemId(foundItemId), false);
+        
+        List<Match> toSave = new ArrayList<>();
+        for (LostItemMatchResultDto result : results) {
+            if (closedLostItemIds.contains(result.getLostItemId())) {
+                continue;
+            }
+            
+            Match match = existing.get(result.getLostItemId());
+            if (match == null) {
+                toSave.add(createPendingMatch(result.getLostItemId(), foundItemId, result.getMatchScore()));
+            } else if (match.getStatus() == Match.MatchStatus.PENDING) {
+                match.setMatchScore(result.getMatchScore());
+                toSave.add(match);
+            }
+        }
+        matchRepository.saveAll(toSave);
+        
+        lostItemIds.removeAll(closedLostItemIds);
+        trimPendingMatches(lostItemIds, limit);
+    }
+    
+    /**
+     * Delete the PENDING matches of each lost item that rank below its best {@code limit}
+     */
+    private void trimPendingMatches(Collection<Long> lostItemIds, int limit) {
+        if (lostItemIds.isEmpty()) {
+            return;
+        }
+        
+        Map<Long, List<Match>> pendingByLostItem = matchRepository
+                .findByLostItemIdInAndStatus(lostItemIds, Match.MatchStatus.PENDING).stream()
+                .collect(Collectors.groupingBy(match -> match.getLostItem().getId()));
+        
+        List<Match> excess = new ArrayList<>();
+        for (List<Match> pending : pendingByLostItem.values()) {
+            if (pending.size() > limit) {
+                pending.sort(Comparator.comparing(Match::getMatchScore,
+                        Comparator.nullsLast(Comparator.reverseOrder())));
+                excess.addAll(pending.subList(limit, pending.size()));
+            }
+        }
+        matchRepository.deleteAll(excess);
+    }
+    
+    /**
+     * Index matches by the opposite item id. Concurrent writers can occasionally store the same pair twice;
+     * duplicate PENDING rows are deleted here so they heal on the next write.
+     */
+    private Map<Long, Match> indexMatches(List<Match> matches, boolean byFoundItem) {
+        Map<Long, Match> indexed = new HashMap<>();
+        List<Match> duplicates = new ArrayList<>();
+        for (Match match : matches) {
+            Long key = byFoundItem ? match.getFoundItem().getId() : match.getLostItem().getId();
+            Match previous = indexed.putIfAbsent(key, match);
+            if (previous == null) {
+                continue;
+            }
+            
+            if (previous.getStatus() == Match.MatchStatus.PENDING) {
+                indexed.put(key, match);
+                duplicates.add(previous);
+            } else if (match.getStatus() == Match.MatchStatus.PENDING) {
+                duplicates.add(match);
+            }
+        }
+        matchRepository.deleteAll(duplicates);
+        return indexed;
+    }
+    
+    private Match createPendingMatch(Long lostItemId, Long foundItemId, Double matchScore) {
+        Match match = new Match();
+        match.setLostItem(lostItemRepository.getReferenceById(lostItemId));
+        match.setFoundItem(foundItemRepository.getReferenceById(foundItemId));
+        match.setStatus(Match.MatchStatus.PENDING);
+        match.setMatchScore(matchScore);
+        return match;
+    }
+}
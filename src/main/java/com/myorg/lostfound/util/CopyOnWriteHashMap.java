@@ -0,0 +1,270 @@
+package com.myorg.lostfound.util;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Hash map stored as a persistent hash trie whose nodes are shared between copies.
+ * Internal nodes branch 32 ways on successive 5-bit slices of the spread key hash, and leaves hold up to
+ * LEAF_CAPACITY entries in a small HashMap before splitting. Every node records the map that created it:
+ * {@link #copy()} just gives both maps new identities in O(1), and a later write copies only the nodes on the path
+ * to its leaf that the writing map does not own yet, i.e. at most 7 arrays of 32 references and one leaf.
+ * Values handed out by {@link #getForUpdate} are copied the same way, which lets mutable values such as posting
+ * sets be shared until they change.
+ *
+ * A copy that is never modified can be read from other threads while the original keeps being modified.
+ * Null keys and values are not supported.
+ */
+public class CopyOnWriteHashMap<K, V> {
+    
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int LEAF_CAPACITY = 64;
+    // Deepest level that can still branch; beyond it the hash has no bits left and colliding keys share a leaf
+    private static final int MAX_SHIFT = 30;
+    
+    private Node<K, V> root;
+    // Identity of this map; nodes created under another identity may be shared with copies
+    private Object owner;
+    private final Set<K> ownedValues;
+    // Whether values may be shared with another map, i.e. this map was copied or is a copy
+    private boolean valuesShared;
+    private int size;
+    
+    public CopyOnWriteHashMap() {
+        this.owner = new Object();
+        this.root = Node.leaf(owner);
+        this.ownedValues = new HashSet<>();
+    }
+    
+    /**
+     * Create an independent copy sharing every node and value with this map until either side writes to them.
+     * Runs in constant time apart from forgetting which values this map owned.
+     */
+    public CopyOnWriteHashMap<K, V> copy() {
+        CopyOnWriteHashMap<K, V> copy = new CopyOnWriteHashMap<>();
+        copy.root = root;
+        copy.size = size;
+        copy.valuesShared = true;
+        owner = new Object();
+        ownedValues.clear();
+        valuesShared = true;
+        return copy;
+    }
+    
+    /**
+     * Get the value of a key, or null if the key is absent
+     */
+    public V get(K key) {
+        return findLeaf(spread(key.hashCode())).entries.get(key);
+    }
+    
+    /**
+     * Check whether the key is present
+     */
+    public boolean containsKey(K key) {
+        return findLeaf(spread(key.hashCode())).entries.containsKey(key);
+    }
+    
+    /**
+     * Get the value of a key for in-place modification, copying it first if it may be shared with a copy
+     *
+     * @param key Key to look up
+     * @param copier Creates a private copy of a value
+     * @return The modifiable value, or null if the key is absent
+     */
+    public V getForUpdate(K key, UnaryOperator<V> copier) {
+        V value = get(key);
+        if (value == null || !valuesShared || ownedValues.contains(key)) {
+            return value;
+        }
+        
+        V copy = copier.apply(value);
+        writableLeaf(spread(key.hashCode())).entries.put(key, copy);
+        ownedValues.add(key);
+        return copy;
+    }
+    
+    /**
+     * Set the value of a key
+     *
+     * @return The previous value, or null if the key was absent
+     */
+    public V put(K key, V value) {
+        int hash = spread(key.hashCode());
+        Node<K, V> leaf = writableLeaf(hash);
+        V previous = leaf.entries.put(key, value);
+        if (valuesShared) {
+            ownedValues.add(key);
+        }
+        if (previous == null) {
+            size++;
+            if (leaf.entries.size() > LEAF_CAPACITY && leaf.shift <= MAX_SHIFT) {
+                leaf.split();
+            }
+        }
+        return previous;
+    }
+    
+    /**
+     * Remove a key
+     *
+     * @return The removed value, or null if the key was absent
+     */
+    public V remove(K key) {
+        int hash = spread(key.hashCode());
+        if (!findLeaf(hash).entries.containsKey(key)) {
+            return null;
+        }
+        
+        ownedValues.remove(key);
+        size--;
+        return writableLeaf(hash).entries.remove(key);
+    }
+    
+    /**
+     * Remove every entry; copies keep their contents
+     */
+    public void clear() {
+        root = Node.leaf(owner);
+        ownedValues.clear();
+        size = 0;
+    }
+    
+    /**
+     * Visit every entry
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        forEach(root, action);
+    }
+    
+    /**
+     * Get a new set of all keys, independent of later changes
+     */
+    public Set<K> keySet() {
+        Set<K> keys = new HashSet<>(size * 4 / 3 + 1);
+        forEach((key, value) -> keys.add(key));
+        return keys;
+    }
+    
+    /**
+     * Get a new list of all values, independent of later changes
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size);
+        forEach((key, value) -> values.add(value));
+        return values;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    private Node<K, V> findLeaf(int hash) {
+        Node<K, V> node = root;
+        while (node.children != null) {
+            Node<K, V> child = node.children[(hash >>> node.shift) & (WIDTH - 1)];
+            if (child == null) {
+                return Node.emptyLeaf();
+            }
+            node = child;
+        }
+        return node;
+    }
+    
+    /**
+     * Get the leaf of a hash for modification, copying the nodes on its path that this map does not own
+     */
+    private Node<K, V> writableLeaf(int hash) {
+        root = root.ownedBy(owner);
+        Node<K, V> node = root;
+        while (node.children != null) {
+            int index = (hash >>> node.shift) & (WIDTH - 1);
+            Node<K, V> child = node.children[index];
+            child = child == null ? new Node<>(owner, node.shift + BITS, null, new HashMap<>()) : child.ownedBy(owner);
+            node.children[index] = child;
+            node = child;
+        }
+        return node;
+    }
+    
+    private static <K, V> void forEach(Node<K, V> node, BiConsumer<? super K, ? super V> action) {
+        if (node.children == null) {
+            node.entries.forEach(action);
+            return;
+        }
+        for (Node<K, V> child : node.children) {
+            if (child != null) {
+                forEach(child, action);
+            }
+        }
+    }
+    
+    private static int spread(int hash) {
+        // Scrambled so that keys with similar hashes, such as consecutive ids, spread over the whole trie
+        int mixed = hash * 0x9E3779B9;
+        return mixed ^ (mixed >>> 16);
+    }
+    
+    /**
+     * Trie node: either an internal node with 32 child slots or a leaf with its entries.
+     * A node is only modified by the map that owns it; any other map copies it first.
+     */
+    private static final class Node<K, V> {
+        
+        private static final Node<?, ?> EMPTY_LEAF = new Node<>(null, 0, null, Collections.emptyMap());
+        
+        private final Object owner;
+        // Bits of the hash this node branches on, or would branch on once split
+        private final int shift;
+        private Node<K, V>[] children;
+        private Map<K, V> entries;
+        
+        private Node(Object owner, int shift, Node<K, V>[] children, Map<K, V> entries) {
+            this.owner = owner;
+            this.shift = shift;
+            this.children = children;
+            this.entries = entries;
+        }
+        
+        private static <K, V> Node<K, V> leaf(Object owner) {
+            return new Node<>(owner, 0, null, new HashMap<>());
+        }
+        
+        @SuppressWarnings("unchecked")
+        private static <K, V> Node<K, V> emptyLeaf() {
+            return (Node<K, V>) EMPTY_LEAF;
+        }
+        
+        private Node<K, V> ownedBy(Object newOwner) {
+            if (owner == newOwner) {
+                return this;
+            }
+            return children != null
+                    ? new Node<>(newOwner, shift, children.clone(), null)
+                    : new Node<>(newOwner, shift, null, new HashMap<>(entries));
+        }
+        
+        /**
+         * Turn this owned leaf into an internal node whose new leaves are owned by the same map
+         */
+        @SuppressWarnings("unchecked")
+        private void split() {
+            Node<K, V>[] split = new Node[WIDTH];
+            for (Map.Entry<K, V> entry : entries.entrySet()) {
+                int index = (spread(entry.getKey().hashCode()) >>> shift) & (WIDTH - 1);
+                if (split[index] == null) {
+                    split[index] = new Node<>(owner, shift + BITS, null, new HashMap<>());
+                }
+                split[index].entries.put(entry.getKey(), entry.getValue());
+            }
+            children = split;
+            entries = null;
+        }
+    }
+}
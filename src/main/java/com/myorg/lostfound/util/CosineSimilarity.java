@@ -1,5 +1,6 @@
 package com.myorg.lostfound.util;
 
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -21,7 +22,7 @@ public class CosineSimilarity {
         }
         
         // Get all unique terms from both vectors
-        Set<String> allTerms = vectorA.keySet();
+        Set<String> allTerms = new HashSet<>(vectorA.keySet());
         allTerms.addAll(vectorB.keySet());
         
         double dotProduct = 0.0;
@@ -47,6 +48,26 @@ public class CosineSimilarity {
         return dotProduct / (Math.sqrt(normA) * Math.sqrt(normB));
     }
     
+    /**
+     * Compute cosine similarity between two sparse vectors using their precomputed norms
+     * 
+     * @param vectorA First vector
+     * @param vectorB Second vector
+     * @return Cosine similarity value between 0 and 1
+     */
+    public static double compute(SparseVector vectorA, SparseVector vectorB) {
+        if (vectorA == null || vectorB == null || vectorA.isEmpty() || vectorB.isEmpty()) {
+            return 0.0;
+        }
+        
+        double normProduct = vectorA.norm() * vectorB.norm();
+        if (normProduct == 0.0) {
+            return 0.0;
+        }
+        
+        return vectorA.dot(vectorB) / normProduct;
+    }
+    
     /**
      * Compute cosine similarity with a threshold check
      * 
@@ -71,5 +92,17 @@ public class CosineSimilarity {
     public static boolean isSimilar(Map<String, Double> vectorA, Map<String, Double> vectorB, double threshold) {
         return compute(vectorA, vectorB) >= threshold;
     }
+    
+    /**
+     * Check if two sparse vectors are similar above a threshold
+     * 
+     * @param vectorA First vector
+     * @param vectorB Second vector
+     * @param threshold Similarity threshold
+     * @return true if similarity is above threshold
+     */
+    public static boolean isSimilar(SparseVector vectorA, SparseVector vectorB, double threshold) {
+        return compute(vectorA, vectorB) >= threshold;
+    }
 }
 
@@ -0,0 +1,249 @@
+package com.myorg.lostfound.util;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * In-memory index of documents by timestamp, grouped into one bucket per calendar day.
+ * Buckets are kept in a sorted map and hold their documents in parallel arrays sorted by time of day,
+ * so a date window is answered by visiting only the buckets it covers and binary searching the two edge buckets.
+ * Copies share their buckets until one side changes them, so a copy costs one entry per day rather than per document.
+ */
+public class DayBucketTimeIndex {
+    
+    private static final int INITIAL_BUCKET_CAPACITY = 4;
+    
+    private final TreeMap<Long, Bucket> buckets;
+    private final CopyOnWriteHashMap<Long, LocalDateTime> documentTimes;
+    // Days whose bucket is private to this index; the other buckets may be shared with copies
+    private final Set<Long> ownedBuckets;
+    
+    public DayBucketTimeIndex() {
+        this(new TreeMap<>(), new CopyOnWriteHashMap<>());
+    }
+    
+    private DayBucketTimeIndex(TreeMap<Long, Bucket> buckets, CopyOnWriteHashMap<Long, LocalDateTime> documentTimes) {
+        this.buckets = buckets;
+        this.documentTimes = documentTimes;
+        this.ownedBuckets = new HashSet<>();
+    }
+    
+    /**
+     * Create an independent copy of the index sharing its buckets with this one until either side changes them
+     */
+    public DayBucketTimeIndex copy() {
+        ownedBuckets.clear();
+        return new DayBucketTimeIndex(new TreeMap<>(buckets), documentTimes.copy());
+    }
+    
+    /**
+     * Add a document, replacing any timestamp previously indexed for the same id
+     * 
+     * @param documentId Document id
+     * @param time Timestamp of the document
+     */
+    public void add(Long documentId, LocalDateTime time) {
+        remove(documentId);
+        
+        long day = time.toLocalDate().toEpochDay();
+        Bucket bucket = writableBucket(day);
+        if (bucket == null) {
+            bucket = new Bucket(INITIAL_BUCKET_CAPACITY);
+            buckets.put(day, bucket);
+            ownedBuckets.add(day);
+        }
+        bucket.insert(time.toLocalTime().toNanoOfDay(), documentId);
+        documentTimes.put(documentId, time);
+    }
+    
+    /**
+     * Remove a document from the index
+     * 
+     * @param documentId Document id
+     */
+    public void remove(Long documentId) {
+        LocalDateTime time = documentTimes.remove(documentId);
+        if (time == null) {
+            return;
+        }
+        
+        long day = time.toLocalDate().toEpochDay();
+        Bucket bucket = writableBucket(day);
+        bucket.remove(time.toLocalTime().toNanoOfDay(), documentId);
+        if (bucket.size == 0) {
+            buckets.remove(day);
+            ownedBuckets.remove(day);
+        }
+    }
+    
+    /**
+     * Remove every document from the index
+     */
+    public void clear() {
+        buckets.clear();
+        documentTimes.clear();
+        ownedBuckets.clear();
+    }
+    
+    /**
+     * Check whether a document has been indexed
+     */
+    public boolean contains(Long documentId) {
+        return documentTimes.containsKey(documentId);
+    }
+    
+    /**
+     * Get the timestamp of a document, or null if it is not indexed
+     */
+    public LocalDateTime getTime(Long documentId) {
+        return documentTimes.get(documentId);
+    }
+    
+    /**
+     * Find the documents timestamped within [start, end], both bounds inclusive
+     * 
+     * @param start Start of the window
+     * @param end End of the window
+     * @return Ids of the matching documents, ordered by timestamp
+     */
+    public List<Long> search(LocalDateTime start, LocalDateTime end) {
+        List<Long> result = new ArrayList<>();
+        if (start.isAfter(end)) {
+            return result;
+        }
+        
+        long startDay = start.toLocalDate().toEpochDay();
+        long endDay = end.toLocalDate().toEpochDay();
+        long startNanos = start.toLocalTime().toNanoOfDay();
+        long endNanos = end.toLocalTime().toNanoOfDay();
+        
+        for (Map.Entry<Long, Bucket> entry : buckets.subMap(startDay, true, endDay, true).entrySet()) {
+            Bucket bucket = entry.getValue();
+            long day = entry.getKey();
+            
+            // Only the edge buckets need a binary search, the ones in between are taken whole
+            int from = day == startDay ? bucket.lowerBound(startNanos) : 0;
+            int to = day == endDay ? bucket.upperBound(endNanos) : bucket.size;
+            for (int i = from; i < to; i++) {
+                result.add(bucket.ids[i]);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Get the ids of all indexed documents, as a new set independent of later changes
+     */
+    public Set<Long> getDocumentIds() {
+        return documentTimes.keySet();
+    }
+    
+    /**
+     * Get the number of indexed documents
+     */
+    public int size() {
+        return documentTimes.size();
+    }
+    
+    /**
+     * Get the number of non-empty day buckets
+     */
+    public int getBucketCount() {
+        return buckets.size();
+    }
+    
+    /**
+     * Get the bucket of a day for modification, copying it first if it may be shared with a copy,
+     * or null if the day has no bucket
+     */
+    private Bucket writableBucket(long day) {
+        Bucket bucket = buckets.get(day);
+        if (bucket != null && ownedBuckets.add(day)) {
+            bucket = bucket.copy();
+            buckets.put(day, bucket);
+        }
+        return bucket;
+    }
+    
+    /**
+     * Documents of one day as parallel arrays sorted by time of day, ties kept in insertion order
+     */
+    private static final class Bucket {
+        
+        private long[] nanosOfDay;
+        private long[] ids;
+        private int size;
+        
+        private Bucket(int capacity) {
+            this.nanosOfDay = new long[capacity];
+            this.ids = new long[capacity];
+        }
+        
+        private Bucket copy() {
+            Bucket copy = new Bucket(Math.max(size, 1));
+            System.arraycopy(nanosOfDay, 0, copy.nanosOfDay, 0, size);
+            System.arraycopy(ids, 0, copy.ids, 0, size);
+            copy.size = size;
+            return copy;
+        }
+        
+        private void insert(long nanos, long id) {
+            if (size == ids.length) {
+                nanosOfDay = Arrays.copyOf(nanosOfDay, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            
+            int position = upperBound(nanos);
+            System.arraycopy(nanosOfDay, position, nanosOfDay, position + 1, size - position);
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            nanosOfDay[position] = nanos;
+            ids[position] = id;
+            size++;
+        }
+        
+        private void remove(long nanos, long id) {
+            for (int i = lowerBound(nanos); i < size && nanosOfDay[i] == nanos; i++) {
+                if (ids[i] == id) {
+                    System.arraycopy(nanosOfDay, i + 1, nanosOfDay, i, size - i - 1);
+                    System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+        
+        /**
+         * Index of the first entry at or after the given time of day
+         */
+        private int lowerBound(long nanos) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (nanosOfDay[middle] < nanos) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+        
+        /**
+         * Index of the first entry strictly after the given time of day
+         */
+        private int upperBound(long nanos) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (nanosOfDay[middle] <= nanos) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.myorg.lostfound.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from non-negative int keys to int values.
+ * Keys and values live in two primitive arrays probed linearly, so counting terms allocates no boxed integers
+ * or entry objects. Entries cannot be removed individually; {@link #clear()} empties the map and keeps its capacity.
+ */
+public class IntIntHashMap {
+    
+    private static final int EMPTY = -1;
+    
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+    
+    public IntIntHashMap() {
+        this(16);
+    }
+    
+    public IntIntHashMap(int expectedSize) {
+        allocate(capacityFor(Math.max(expectedSize, 4)));
+    }
+    
+    /**
+     * Get the value of a key, or the default value if the key is absent
+     */
+    public int get(int key, int defaultValue) {
+        int slot = find(key);
+        return keys[slot] == EMPTY ? defaultValue : values[slot];
+    }
+    
+    /**
+     * Check whether the key is present
+     */
+    public boolean containsKey(int key) {
+        return keys[find(key)] != EMPTY;
+    }
+    
+    /**
+     * Set the value of a key
+     */
+    public void put(int key, int value) {
+        int slot = find(key);
+        if (keys[slot] == EMPTY) {
+            insert(slot, key, value);
+        } else {
+            values[slot] = value;
+        }
+    }
+    
+    /**
+     * Add a delta to the value of a key, starting from 0 if the key is absent
+     * 
+     * @return The new value
+     */
+    public int addTo(int key, int delta) {
+        int slot = find(key);
+        if (keys[slot] == EMPTY) {
+            insert(slot, key, delta);
+            return delta;
+        }
+        values[slot] += delta;
+        return values[slot];
+    }
+    
+    /**
+     * Call the consumer for every entry, in no particular order
+     */
+    public void forEach(EntryConsumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Remove all entries, keeping the allocated capacity
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+    
+    private int find(int key) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Keys must be non-negative: " + key);
+        }
+        
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+    
+    private void insert(int slot, int key, int value) {
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        
+        // Keep the load factor at or below 1/2 so probe sequences stay short
+        if (size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+    
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                size++;
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        size = 0;
+    }
+    
+    private static int capacityFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(expectedSize * 2 - 1) << 1;
+        return Math.max(capacity, 8);
+    }
+    
+    private static int mix(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+    
+    /**
+     * Callback receiving one map entry
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+}
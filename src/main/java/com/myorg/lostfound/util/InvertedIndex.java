@@ -0,0 +1,121 @@
+package com.myorg.lostfound.util;
+
+import java.util.*;
+
+/**
+ * Inverted index mapping each term to the ids of the documents containing it.
+ * Copies share their postings and document term sets until one side changes them, see {@link CopyOnWriteHashMap}.
+ * 
+ * The index is not synchronized. It is meant to be changed by a single thread, such as the match index builder,
+ * and read by other threads only through copies that are never changed again once published.
+ */
+public class InvertedIndex {
+    
+    private final CopyOnWriteHashMap<String, Set<Long>> postings;
+    private final CopyOnWriteHashMap<Long, Set<String>> documentTerms;
+    
+    public InvertedIndex() {
+        this(new CopyOnWriteHashMap<>(), new CopyOnWriteHashMap<>());
+    }
+    
+    private InvertedIndex(CopyOnWriteHashMap<String, Set<Long>> postings,
+                          CopyOnWriteHashMap<Long, Set<String>> documentTerms) {
+        this.postings = postings;
+        this.documentTerms = documentTerms;
+    }
+    
+    /**
+     * Create an independent copy of the index sharing its storage with this one until either side changes it
+     */
+    public InvertedIndex copy() {
+        return new InvertedIndex(postings.copy(), documentTerms.copy());
+    }
+    
+    /**
+     * Add a document to the index, replacing any terms previously indexed for the same id
+     * 
+     * @param documentId Document id
+     * @param terms Terms contained in the document
+     */
+    public void add(Long documentId, Collection<String> terms) {
+        remove(documentId);
+        
+        Set<String> uniqueTerms = new HashSet<>(terms);
+        for (String term : uniqueTerms) {
+            Set<Long> documents = postings.getForUpdate(term, HashSet::new);
+            if (documents == null) {
+                documents = new HashSet<>();
+                postings.put(term, documents);
+            }
+            documents.add(documentId);
+        }
+        documentTerms.put(documentId, uniqueTerms);
+    }
+    
+    /**
+     * Remove a document from the index
+     * 
+     * @param documentId Document id
+     */
+    public void remove(Long documentId) {
+        Set<String> terms = documentTerms.remove(documentId);
+        if (terms == null) {
+            return;
+        }
+        
+        for (String term : terms) {
+            Set<Long> documents = postings.getForUpdate(term, HashSet::new);
+            if (documents != null) {
+                documents.remove(documentId);
+                if (documents.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Check whether a document has been indexed
+     */
+    public boolean contains(Long documentId) {
+        return documentTerms.containsKey(documentId);
+    }
+    
+    /**
+     * Find all documents sharing at least one term with the given terms
+     * 
+     * @param terms Query terms
+     * @return Ids of the matching documents
+     */
+    public Set<Long> search(Collection<String> terms) {
+        Set<Long> result = new HashSet<>();
+        for (String term : new HashSet<>(terms)) {
+            Set<Long> documents = postings.get(term);
+            if (documents != null) {
+                result.addAll(documents);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Get the ids of all indexed documents, as a new set independent of later changes
+     */
+    public Set<Long> getDocumentIds() {
+        return documentTerms.keySet();
+    }
+    
+    /**
+     * Get the number of indexed documents
+     */
+    public int size() {
+        return documentTerms.size();
+    }
+    
+    /**
+     * Get the number of distinct indexed terms
+     */
+    public int getTermCount() {
+        return postings.size();
+    }
+}
@@ -0,0 +1,44 @@
+package com.myorg.lostfound.util;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Utility class for computing the Jaccard similarity between the term sets of two texts,
+ * used for text similarity while no TF-IDF index is available
+ */
+public class JaccardSimilarity {
+    
+    /**
+     * Compute the Jaccard similarity of the terms of two texts
+     * 
+     * @param textA First text
+     * @param textB Second text
+     * @return Similarity between 0 and 1; 1 when neither text has a term, 0 when only one of them has none
+     */
+    public static double compute(String textA, String textB) {
+        if (textA == null || textB == null) {
+            return 0.0;
+        }
+        
+        // Tokenize and normalize text
+        Set<String> words1 = Tokenizer.termSet(textA);
+        Set<String> words2 = Tokenizer.termSet(textB);
+        
+        if (words1.isEmpty() && words2.isEmpty()) {
+            return 1.0;
+        }
+        if (words1.isEmpty() || words2.isEmpty()) {
+            return 0.0;
+        }
+        
+        // Calculate Jaccard similarity
+        Set<String> intersection = new HashSet<>(words1);
+        intersection.retainAll(words2);
+        
+        Set<String> union = new HashSet<>(words1);
+        union.addAll(words2);
+        
+        return (double) intersection.size() / union.size();
+    }
+}
@@ -0,0 +1,163 @@
+package com.myorg.lostfound.util;
+
+import java.util.*;
+
+/**
+ * Locality-sensitive hashing index over MinHash signatures.
+ * Signatures are cut into bands of consecutive rows and every band is hashed into its own table, so
+ * documents agreeing on all rows of at least one band with the query become candidates. With b bands
+ * of r rows, two documents of Jaccard similarity s collide with probability 1 - (1 - s^r)^b, which
+ * turns sharply around s = (1/b)^(1/r).
+ * Copies share their band tables and buckets until one side changes them, see {@link CopyOnWriteHashMap}.
+ */
+public class LshIndex {
+    
+    private final int bands;
+    private final int rows;
+    private final List<CopyOnWriteHashMap<Long, Set<Long>>> tables;
+    private final CopyOnWriteHashMap<Long, int[]> signatures;
+    
+    /**
+     * @param bands Number of bands
+     * @param rows Rows per band; signatures must have bands * rows values
+     */
+    public LshIndex(int bands, int rows) {
+        if (bands <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("bands and rows must be positive");
+        }
+        this.bands = bands;
+        this.rows = rows;
+        this.tables = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++) {
+            tables.add(new CopyOnWriteHashMap<>());
+        }
+        this.signatures = new CopyOnWriteHashMap<>();
+    }
+    
+    private LshIndex(int bands, int rows, List<CopyOnWriteHashMap<Long, Set<Long>>> tables,
+                     CopyOnWriteHashMap<Long, int[]> signatures) {
+        this.bands = bands;
+        this.rows = rows;
+        this.tables = tables;
+        this.signatures = signatures;
+    }
+    
+    /**
+     * Create an independent copy of the index sharing its tables with this one until either side changes them
+     */
+    public LshIndex copy() {
+        List<CopyOnWriteHashMap<Long, Set<Long>>> tablesCopy = new ArrayList<>(bands);
+        for (CopyOnWriteHashMap<Long, Set<Long>> table : tables) {
+            tablesCopy.add(table.copy());
+        }
+        return new LshIndex(bands, rows, tablesCopy, signatures.copy());
+    }
+    
+    /**
+     * Add a document, replacing any signature previously indexed for the same id
+     * 
+     * @param documentId Document id
+     * @param signature MinHash signature of the document, not modified afterwards
+     */
+    public void add(Long documentId, int[] signature) {
+        checkLength(signature);
+        remove(documentId);
+        
+        for (int band = 0; band < bands; band++) {
+            CopyOnWriteHashMap<Long, Set<Long>> table = tables.get(band);
+            long key = bandKey(signature, band);
+            Set<Long> bucket = table.getForUpdate(key, HashSet::new);
+            if (bucket == null) {
+                bucket = new HashSet<>(4);
+                table.put(key, bucket);
+            }
+            bucket.add(documentId);
+        }
+        signatures.put(documentId, signature);
+    }
+    
+    /**
+     * Remove a document from the index
+     * 
+     * @param documentId Document id
+     */
+    public void remove(Long documentId) {
+        int[] signature = signatures.remove(documentId);
+        if (signature == null) {
+            return;
+        }
+        
+        for (int band = 0; band < bands; band++) {
+            CopyOnWriteHashMap<Long, Set<Long>> table = tables.get(band);
+            long key = bandKey(signature, band);
+            Set<Long> bucket = table.getForUpdate(key, HashSet::new);
+            bucket.remove(documentId);
+            if (bucket.isEmpty()) {
+                table.remove(key);
+            }
+        }
+    }
+    
+    /**
+     * Check whether a document has been indexed
+     */
+    public boolean contains(Long documentId) {
+        return signatures.containsKey(documentId);
+    }
+    
+    /**
+     * Find the documents colliding with the given signature in at least one band
+     * 
+     * @param signature MinHash signature of the query
+     * @return Ids of the candidate documents
+     */
+    public Set<Long> search(int[] signature) {
+        checkLength(signature);
+        
+        Set<Long> result = new HashSet<>();
+        for (int band = 0; band < bands; band++) {
+            Set<Long> bucket = tables.get(band).get(bandKey(signature, band));
+            if (bucket != null) {
+                result.addAll(bucket);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Get the signature of a document, or null if it is not indexed
+     */
+    public int[] getSignature(Long documentId) {
+        return signatures.get(documentId);
+    }
+    
+    /**
+     * Get the number of indexed documents
+     */
+    public int size() {
+        return signatures.size();
+    }
+    
+    public int getBands() {
+        return bands;
+    }
+    
+    public int getRows() {
+        return rows;
+    }
+    
+    private long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int row = band * rows; row < (band + 1) * rows; row++) {
+            key = MinHash.mix(key * 31 + signature[row]);
+        }
+        return key;
+    }
+    
+    private void checkLength(int[] signature) {
+        if (signature.length != bands * rows) {
+            throw new IllegalArgumentException("Signature length " + signature.length
+                    + " does not match " + bands + " bands of " + rows + " rows");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.myorg.lostfound.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * MinHash signatures of term sets, such as the distinct terms of a description.
+ * The fraction of equal positions in two signatures estimates the Jaccard similarity of the two sets.
+ * Every position has its own seed, derived from the given one, and hashes a term as mix(termHash ^ seed), so
+ * the positions behave as independent hash functions and the rows of an LSH band collide independently.
+ * A signature costs one string hash per term plus one 64-bit mix per term and position.
+ */
+public class MinHash {
+    
+    private final int numHashes;
+    private final long[] seeds;
+    
+    /**
+     * @param numHashes Signature length
+     * @param seed Seed of the hash functions; signatures are only comparable when built with the same seed
+     */
+    public MinHash(int numHashes, long seed) {
+        if (numHashes <= 0) {
+            throw new IllegalArgumentException("numHashes must be positive");
+        }
+        this.numHashes = numHashes;
+        this.seeds = new long[numHashes];
+        // Successive SplitMix64 outputs of the seed
+        for (int i = 0; i < numHashes; i++) {
+            seeds[i] = mix(seed + (i + 1) * 0x9E3779B97F4A7C15L);
+        }
+    }
+    
+    /**
+     * Compute the signature of a set of terms
+     * 
+     * @param terms Terms of the document, duplicates are ignored
+     * @return Signature of {@link #getNumHashes()} values, or null if there are no terms
+     */
+    public int[] signature(Collection<? extends CharSequence> terms) {
+        if (terms.isEmpty()) {
+            return null;
+        }
+        
+        int[] signature = new int[numHashes];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (CharSequence term : terms) {
+            long termHash = hash(term);
+            for (int i = 0; i < numHashes; i++) {
+                int value = (int) (mix(termHash ^ seeds[i]) >>> 32);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+    
+    /**
+     * Estimate the Jaccard similarity of two documents from their signatures
+     */
+    public static double estimateSimilarity(int[] signature1, int[] signature2) {
+        if (signature1 == null || signature2 == null || signature1.length != signature2.length) {
+            return 0.0;
+        }
+        
+        int equal = 0;
+        for (int i = 0; i < signature1.length; i++) {
+            if (signature1[i] == signature2[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / signature1.length;
+    }
+    
+    public int getNumHashes() {
+        return numHashes;
+    }
+    
+    private static long hash(CharSequence text) {
+        long hash = 1125899906842597L;
+        for (int i = 0; i < text.length(); i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        return hash;
+    }
+    
+    /**
+     * Finalizer of SplitMix64, spreading every input bit over the whole hash
+     */
+    static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,133 @@
+package com.myorg.lostfound.util;
+
+import java.util.*;
+
+/**
+ * Inverted index partitioned into independent shards, each document living in exactly one shard.
+ * Searches can be restricted to a subset of shards so that documents in other shards are never visited.
+ */
+public class ShardedInvertedIndex {
+    
+    private final Map<String, InvertedIndex> shards;
+    private final CopyOnWriteHashMap<Long, String> documentShards;
+    
+    public ShardedInvertedIndex() {
+        this(new CopyOnWriteHashMap<>());
+    }
+    
+    private ShardedInvertedIndex(CopyOnWriteHashMap<Long, String> documentShards) {
+        this.shards = new HashMap<>();
+        this.documentShards = documentShards;
+    }
+    
+    /**
+     * Create an independent copy of the index sharing its storage with this one until either side changes it
+     */
+    public ShardedInvertedIndex copy() {
+        ShardedInvertedIndex copy = new ShardedInvertedIndex(documentShards.copy());
+        for (Map.Entry<String, InvertedIndex> entry : shards.entrySet()) {
+            copy.shards.put(entry.getKey(), entry.getValue().copy());
+        }
+        return copy;
+    }
+    
+    /**
+     * Add a document to a shard, replacing any terms previously indexed for the same id in any shard
+     * 
+     * @param documentId Document id
+     * @param shard Shard key
+     * @param terms Terms contained in the document
+     */
+    public void add(Long documentId, String shard, Collection<String> terms) {
+        remove(documentId);
+        
+        shards.computeIfAbsent(shard, key -> new InvertedIndex()).add(documentId, terms);
+        documentShards.put(documentId, shard);
+    }
+    
+    /**
+     * Remove a document from the index
+     * 
+     * @param documentId Document id
+     */
+    public void remove(Long documentId) {
+        String shard = documentShards.remove(documentId);
+        if (shard == null) {
+            return;
+        }
+        
+        InvertedIndex index = shards.get(shard);
+        index.remove(documentId);
+        if (index.size() == 0) {
+            shards.remove(shard);
+        }
+    }
+    
+    /**
+     * Check whether a document has been indexed
+     */
+    public boolean contains(Long documentId) {
+        return documentShards.containsKey(documentId);
+    }
+    
+    /**
+     * Get the shard key of a document, or null if it is not indexed
+     */
+    public String getShard(Long documentId) {
+        return documentShards.get(documentId);
+    }
+    
+    /**
+     * Find all documents sharing at least one term with the given terms, in any shard
+     */
+    public Set<Long> search(Collection<String> terms) {
+        return search(terms, shards.keySet());
+    }
+    
+    /**
+     * Find the documents of the given shards sharing at least one term with the given terms
+     * 
+     * @param terms Query terms
+     * @param shardKeys Shards to search; unknown keys are ignored
+     * @return Ids of the matching documents
+     */
+    public Set<Long> search(Collection<String> terms, Collection<String> shardKeys) {
+        Set<Long> result = new HashSet<>();
+        for (String shard : shardKeys) {
+            InvertedIndex index = shards.get(shard);
+            if (index != null) {
+                result.addAll(index.search(terms));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Get the ids of all indexed documents, as a new set independent of later changes
+     */
+    public Set<Long> getDocumentIds() {
+        return documentShards.keySet();
+    }
+    
+    /**
+     * Get the number of indexed documents
+     */
+    public int size() {
+        return documentShards.size();
+    }
+    
+    /**
+     * Get the number of indexed documents in a shard
+     */
+    public int size(String shard) {
+        InvertedIndex index = shards.get(shard);
+        return index != null ? index.size() : 0;
+    }
+    
+    /**
+     * Get the keys of all non-empty shards
+     */
+    public Set<String> getShards() {
+        return Collections.unmodifiableSet(shards.keySet());
+    }
+}
@@ -0,0 +1,158 @@
+package com.myorg.lostfound.util;
+
+import java.util.Arrays;
+
+/**
+ * Immutable sparse vector backed by primitive arrays.
+ * Term ids are kept sorted so that dot products are a single merge-join pass.
+ */
+public final class SparseVector {
+    
+    private static final SparseVector EMPTY = new SparseVector(new int[0], new float[0], 0, 0.0);
+    
+    private final int[] indices;
+    private final float[] values;
+    private final int size;
+    private final double norm;
+    
+    private SparseVector(int[] indices, float[] values, int size, double norm) {
+        this.indices = indices;
+        this.values = values;
+        this.size = size;
+        this.norm = norm;
+    }
+    
+    /**
+     * Create a sparse vector from parallel term id and weight arrays.
+     * The arrays are copied, sorted by term id and zero weights are dropped.
+     * 
+     * @param termIds Term ids (must be distinct)
+     * @param weights Weights for the corresponding term ids
+     * @param length Number of entries to read from the arrays
+     * @return Sparse vector
+     */
+    public static SparseVector of(int[] termIds, float[] weights, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        
+        int[] sortedIds = Arrays.copyOf(termIds, length);
+        float[] sortedWeights = Arrays.copyOf(weights, length);
+        sortByIndex(sortedIds, sortedWeights);
+        
+        int size = 0;
+        double squaredNorm = 0.0;
+        for (int i = 0; i < length; i++) {
+            if (sortedWeights[i] != 0.0f) {
+                sortedIds[size] = sortedIds[i];
+                sortedWeights[size] = sortedWeights[i];
+                squaredNorm += (double) sortedWeights[i] * sortedWeights[i];
+                size++;
+            }
+        }
+        
+        if (size == 0) {
+            return EMPTY;
+        }
+        return new SparseVector(sortedIds, sortedWeights, size, Math.sqrt(squaredNorm));
+    }
+    
+    /**
+     * Get the empty vector
+     */
+    public static SparseVector empty() {
+        return EMPTY;
+    }
+    
+    /**
+     * Compute the dot product with another vector using a merge-join over the sorted term ids
+     */
+    public double dot(SparseVector other) {
+        int[] otherIndices = other.indices;
+        float[] otherValues = other.values;
+        int otherSize = other.size;
+        
+        double result = 0.0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < otherSize) {
+            int a = indices[i];
+            int b = otherIndices[j];
+            if (a == b) {
+                result += (double) values[i] * otherValues[j];
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Get the precomputed L2 norm
+     */
+    public double norm() {
+        return norm;
+    }
+    
+    /**
+     * Get the number of non-zero entries
+     */
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Get the term id of the i-th non-zero entry
+     */
+    public int indexAt(int i) {
+        return indices[i];
+    }
+    
+    /**
+     * Get the weight of the i-th non-zero entry
+     */
+    public float valueAt(int i) {
+        return values[i];
+    }
+    
+    /**
+     * Sort entries by term id: insertion sort for short vectors, a packed primitive sort otherwise
+     */
+    private static void sortByIndex(int[] ids, float[] weights) {
+        int length = ids.length;
+        if (length < 32) {
+            for (int i = 1; i < length; i++) {
+                int id = ids[i];
+                float weight = weights[i];
+                int j = i - 1;
+                while (j >= 0 && ids[j] > id) {
+                    ids[j + 1] = ids[j];
+                    weights[j + 1] = weights[j];
+                    j--;
+                }
+                ids[j + 1] = id;
+                weights[j + 1] = weight;
+            }
+            return;
+        }
+        
+        // Pack id and weight bits into longs so a single primitive sort keeps them together
+        long[] packed = new long[length];
+        for (int i = 0; i < length; i++) {
+            packed[i] = ((long) ids[i] << 32) | (Float.floatToRawIntBits(weights[i]) & 0xFFFFFFFFL);
+        }
+        Arrays.sort(packed);
+        for (int i = 0; i < length; i++) {
+            ids[i] = (int) (packed[i] >>> 32);
+            weights[i] = Float.intBitsToFloat((int) packed[i]);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.myorg.lostfound.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Per-term upper bounds of the L2-normalized weights of a set of sparse vectors.
+ * The cosine similarity of a query with any vector of the set is at most the sum over the query terms
+ * of the normalized query weight times the term's bound, which lets scoring skip candidates whose best
+ * possible score cannot enter the top K (max-score pruning) without computing their similarity.
+ */
+public final class TermUpperBounds {
+    
+    private final float[] maxWeights;
+    
+    private TermUpperBounds(float[] maxWeights) {
+        this.maxWeights = maxWeights;
+    }
+    
+    /**
+     * Compute the bounds of a set of vectors
+     * 
+     * @param vectors Vectors over the same term ids; null and empty vectors are ignored
+     */
+    public static TermUpperBounds of(Collection<SparseVector> vectors) {
+        return new TermUpperBounds(raise(new float[0], vectors));
+    }
+    
+    /**
+     * Compute the bounds of this set with more vectors added.
+     * Bounds never shrink, so they also stay valid, only looser, for a set whose other vectors were
+     * since removed or replaced.
+     * 
+     * @param vectors Vectors over the same term ids; null and empty vectors are ignored
+     */
+    public TermUpperBounds with(Collection<SparseVector> vectors) {
+        return vectors.isEmpty() ? this : new TermUpperBounds(raise(maxWeights.clone(), vectors));
+    }
+    
+    private static float[] raise(float[] maxWeights, Collection<SparseVector> vectors) {
+        for (SparseVector vector : vectors) {
+            if (vector == null || vector.isEmpty() || vector.norm() == 0.0) {
+                continue;
+            }
+            
+            for (int i = 0; i < vector.size(); i++) {
+                int termId = vector.indexAt(i);
+                if (termId >= maxWeights.length) {
+                    maxWeights = Arrays.copyOf(maxWeights, Math.max(termId + 1, maxWeights.length * 2));
+                }
+                // Rounded up so that storing the bound as a float never makes it smaller than the weight
+                float weight = Math.nextUp((float) (Math.abs(vector.valueAt(i)) / vector.norm()));
+                if (weight > maxWeights[termId]) {
+                    maxWeights[termId] = weight;
+                }
+            }
+        }
+        return maxWeights;
+    }
+    
+    /**
+     * Get an upper bound of the cosine similarity between the query and any vector of the set, at most 1
+     */
+    public double cosineUpperBound(SparseVector query) {
+        if (query == null || query.isEmpty() || query.norm() == 0.0) {
+            return 0.0;
+        }
+        
+        double bound = 0.0;
+        for (int i = 0; i < query.size(); i++) {
+            bound += Math.abs(query.valueAt(i)) * getMaxWeight(query.indexAt(i));
+        }
+        return Math.min(bound / query.norm(), 1.0);
+    }
+    
+    /**
+     * Get the largest normalized weight of a term in the set, or 0 if no vector contains it
+     */
+    public float getMaxWeight(int termId) {
+        return termId >= 0 && termId < maxWeights.length ? maxWeights[termId] : 0.0f;
+    }
+}
@@ -4,24 +4,147 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 /**
- * TF-IDF Vectorizer for text similarity computation
+ * TF-IDF Vectorizer for text similarity computation.
+ * Document frequencies are maintained incrementally and IDF values are recomputed lazily on the next read.
+ * Terms are interned into a {@link Vocabulary}, so the statistics live in primitive arrays indexed by term id.
  */
 public class TextVectorizer {
     
-    private Map<String, Double> idfMap;
+    private Vocabulary vocabulary;
     private int totalDocuments;
+    private boolean idfDirty;
     
     public TextVectorizer() {
-        this.idfMap = new HashMap<>();
+        this.vocabulary = new Vocabulary();
         this.totalDocuments = 0;
+        this.idfDirty = false;
     }
     
     /**
-     * Fit the vectorizer on a collection of documents
+     * Fit the vectorizer on a collection of documents, discarding any previous statistics
      */
     public void fit(List<String> documents) {
-        this.totalDocuments = documents.size();
-        this.idfMap = computeIdf(documents);
+        this.vocabulary = new Vocabulary();
+        this.totalDocuments = 0;
+        
+        for (String document : documents) {
+            addDocument(document);
+        }
+        refreshIdf();
+    }
+    
+    /**
+     * Create an independent copy of the current statistics with IDF values already computed.
+     * A copy that is never modified can be shared between threads for read-only transforms.
+     */
+    public TextVectorizer copy() {
+        refreshIdf();
+        TextVectorizer copy = new TextVectorizer();
+        copy.vocabulary = vocabulary.copy();
+        copy.totalDocuments = totalDocuments;
+        copy.idfDirty = false;
+        return copy;
+    }
+    
+    /**
+     * Rebuild a vectorizer from previously saved statistics
+     */
+    public static TextVectorizer restore(Vocabulary vocabulary, int totalDocuments) {
+        TextVectorizer vectorizer = new TextVectorizer();
+        vectorizer.vocabulary = vocabulary;
+        vectorizer.totalDocuments = totalDocuments;
+        vectorizer.idfDirty = false;
+        return vectorizer;
+    }
+    
+    /**
+     * Add a document to the document frequency statistics
+     */
+    public void addDocument(String document) {
+        addTermCounts(countTerms(document));
+    }
+    
+    /**
+     * Count the terms of a document by term id, adding unknown terms to the vocabulary.
+     * The statistics are not changed until the counts are passed to {@link #addTermCounts(SparseVector)}.
+     */
+    public SparseVector countTerms(String document) {
+        IntIntHashMap termFreq = computeTermFrequency(document, true);
+        int[] ids = new int[termFreq.size()];
+        float[] counts = new float[termFreq.size()];
+        int[] length = new int[1];
+        
+        termFreq.forEach((termId, count) -> {
+            ids[length[0]] = termId;
+            counts[length[0]] = count;
+            length[0]++;
+        });
+        
+        return SparseVector.of(ids, counts, length[0]);
+    }
+    
+    /**
+     * Add a document, given as term counts from {@link #countTerms(String)}, to the document frequency statistics
+     */
+    public void addTermCounts(SparseVector termCounts) {
+        totalDocuments++;
+        for (int i = 0; i < termCounts.size(); i++) {
+            vocabulary.incrementDocumentFrequency(termCounts.indexAt(i));
+        }
+        idfDirty = true;
+    }
+    
+    /**
+     * Remove a document, given as term counts from {@link #countTerms(String)}, from the document frequency statistics
+     */
+    public void removeTermCounts(SparseVector termCounts) {
+        if (totalDocuments == 0) {
+            return;
+        }
+        
+        totalDocuments--;
+        for (int i = 0; i < termCounts.size(); i++) {
+            vocabulary.decrementDocumentFrequency(termCounts.indexAt(i));
+        }
+        idfDirty = true;
+    }
+    
+    /**
+     * Turn term counts from {@link #countTerms(String)} into a TF-IDF vector with the current IDF values.
+     * The counts may come from the vectorizer this one was copied from; terms added since then get a weight of 0.
+     */
+    public SparseVector weigh(SparseVector termCounts) {
+        refreshIdf();
+        int[] ids = new int[termCounts.size()];
+        float[] weights = new float[termCounts.size()];
+        for (int i = 0; i < termCounts.size(); i++) {
+            ids[i] = termCounts.indexAt(i);
+            weights[i] = (float) (termCounts.valueAt(i) * vocabulary.getIdf(ids[i]));
+        }
+        return SparseVector.of(ids, weights, termCounts.size());
+    }
+    
+    /**
+     * Remove a previously added document from the document frequency statistics
+     */
+    public void removeDocument(String document) {
+        if (totalDocuments == 0) {
+            return;
+        }
+        
+        totalDocuments--;
+        // Term ids are never reused, so only the frequency is lowered
+        computeTermFrequency(document, false)
+                .forEach((termId, count) -> vocabulary.decrementDocumentFrequency(termId));
+        idfDirty = true;
+    }
+    
+    /**
+     * Replace a document in the document frequency statistics
+     */
+    public void updateDocument(String oldDocument, String newDocument) {
+        removeDocument(oldDocument);
+        addDocument(newDocument);
     }
     
     /**
@@ -32,13 +155,16 @@ public class TextVectorizer {
             return new HashMap<>();
         }
         
-        Map<String, Integer> termFreq = computeTermFrequency(document);
+        refreshIdf();
+        Map<String, Integer> termFreq = new HashMap<>();
+        Tokenizer.forEachTerm(document, term -> termFreq.merge(term.toString(), 1, Integer::sum));
         Map<String, Double> tfIdfVector = new HashMap<>();
         
         for (Map.Entry<String, Integer> entry : termFreq.entrySet()) {
             String term = entry.getKey();
             int tf = entry.getValue();
-            double idf = idfMap.getOrDefault(term, 0.0);
+            int termId = vocabulary.idOf(term);
+            double idf = termId >= 0 ? vocabulary.getIdf(termId) : 0.0;
             
             // TF-IDF = TF * IDF
             double tfIdf = tf * idf;
@@ -48,6 +174,30 @@ public class TextVectorizer {
         return tfIdfVector;
     }
     
+    /**
+     * Transform a single document into a sparse TF-IDF vector keyed by term id.
+     * Terms outside the fitted vocabulary carry no weight and are dropped.
+     */
+    public SparseVector transformSparse(String document) {
+        if (document == null || document.trim().isEmpty()) {
+            return SparseVector.empty();
+        }
+        
+        refreshIdf();
+        IntIntHashMap termFreq = computeTermFrequency(document, false);
+        int[] ids = new int[termFreq.size()];
+        float[] weights = new float[termFreq.size()];
+        int[] length = new int[1];
+        
+        termFreq.forEach((termId, count) -> {
+            ids[length[0]] = termId;
+            weights[length[0]] = (float) (count * vocabulary.getIdf(termId));
+            length[0]++;
+        });
+        
+        return SparseVector.of(ids, weights, length[0]);
+    }
+    
     /**
      * Transform multiple documents into TF-IDF vectors
      */
@@ -58,81 +208,69 @@ public class TextVectorizer {
     }
     
     /**
-     * Compute Term Frequency (TF) for a document
+     * Compute Term Frequency (TF) for a document, keyed by term id
+     * 
+     * @param addTerms Whether unknown terms are added to the vocabulary or skipped
      */
-    private Map<String, Integer> computeTermFrequency(String document) {
-        Map<String, Integer> termFreq = new HashMap<>();
+    private IntIntHashMap computeTermFrequency(String document, boolean addTerms) {
+        IntIntHashMap termFreq = new IntIntHashMap();
         
-        // Tokenize and normalize the document
-        List<String> tokens = tokenizeAndNormalize(document);
-        
-        // Count term frequencies
-        for (String token : tokens) {
-            termFreq.put(token, termFreq.getOrDefault(token, 0) + 1);
-        }
+        // Tokenize and count term frequencies in a single pass
+        Tokenizer.forEachTerm(document, term -> {
+            int termId = addTerms ? vocabulary.intern(term) : vocabulary.idOf(term);
+            if (termId >= 0) {
+                termFreq.addTo(termId, 1);
+            }
+        });
         
         return termFreq;
     }
     
     /**
-     * Compute Inverse Document Frequency (IDF) for all terms
+     * Recompute Inverse Document Frequency (IDF) values if the statistics changed since the last read
      */
-    private Map<String, Double> computeIdf(List<String> documents) {
-        Map<String, Integer> documentFrequency = new HashMap<>();
-        
-        // Count how many documents contain each term
-        for (String document : documents) {
-            if (document == null || document.trim().isEmpty()) {
-                continue;
-            }
-            
-            Set<String> uniqueTerms = new HashSet<>(tokenizeAndNormalize(document));
-            for (String term : uniqueTerms) {
-                documentFrequency.put(term, documentFrequency.getOrDefault(term, 0) + 1);
-            }
+    private void refreshIdf() {
+        if (!idfDirty) {
+            return;
         }
         
-        // Compute IDF for each term
-        Map<String, Double> idfMap = new HashMap<>();
-        for (Map.Entry<String, Integer> entry : documentFrequency.entrySet()) {
-            String term = entry.getKey();
-            int docFreq = entry.getValue();
-            
-            // IDF = log(total_documents / document_frequency)
-            double idf = Math.log((double) totalDocuments / docFreq);
-            idfMap.put(term, idf);
-        }
-        
-        return idfMap;
+        vocabulary.computeIdf(totalDocuments);
+        this.idfDirty = false;
     }
     
     /**
-     * Tokenize and normalize text
+     * Get the term with the given id
      */
-    private List<String> tokenizeAndNormalize(String text) {
-        if (text == null || text.trim().isEmpty()) {
-            return new ArrayList<>();
-        }
-        
-        return Arrays.stream(text.toLowerCase()
-                .replaceAll("[^a-zA-Z0-9\\s]", " ") // Replace punctuation with spaces
-                .split("\\s+"))
-                .filter(word -> word.length() > 2) // Filter out short words
-                .collect(Collectors.toList());
+    public String getTerm(int termId) {
+        return vocabulary.getTerm(termId);
+    }
+    
+    /**
+     * Get the term dictionary with IDF values up to date. The returned vocabulary must not be modified.
+     */
+    public Vocabulary getVocabulary() {
+        refreshIdf();
+        return vocabulary;
     }
     
     /**
      * Get the IDF map (for debugging/inspection)
      */
     public Map<String, Double> getIdfMap() {
-        return new HashMap<>(idfMap);
+        refreshIdf();
+        Map<String, Double> idfMap = new HashMap<>();
+        for (int termId = 0; termId < vocabulary.size(); termId++) {
+            if (vocabulary.getDocumentFrequency(termId) > 0) {
+                idfMap.put(vocabulary.getTerm(termId), vocabulary.getIdf(termId));
+            }
+        }
+        return idfMap;
     }
     
     /**
-     * Get total number of documents used for fitting
+     * Get total number of documents currently counted in the statistics
      */
     public int getTotalDocuments() {
         return totalDocuments;
     }
 }
-
@@ -0,0 +1,140 @@
+package com.myorg.lostfound.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Single-pass tokenizer shared by the TF-IDF vectorizer, the term indexes and the fallback text similarity.
+ *
+ * A term is a run of ASCII letters and digits, lower-cased, at least {@link #MIN_TERM_LENGTH} characters long;
+ * every other character separates terms. The text is scanned once into a reusable buffer, without regular
+ * expressions, intermediate strings or streams.
+ */
+public final class Tokenizer {
+    
+    public static final int MIN_TERM_LENGTH = 3;
+    
+    private static final ThreadLocal<Term> TERM_BUFFER = ThreadLocal.withInitial(Term::new);
+    
+    private Tokenizer() {
+    }
+    
+    /**
+     * Pass every term of the text to the consumer.
+     * The term is a reusable buffer that is only valid during the callback; call toString() to keep it.
+     * 
+     * @return Number of terms passed to the consumer
+     */
+    public static int forEachTerm(CharSequence text, Consumer<? super Term> consumer) {
+        if (text == null) {
+            return 0;
+        }
+        
+        Term term = TERM_BUFFER.get();
+        if (term.inUse) {
+            // Called again from inside a consumer, the thread's buffer is taken
+            term = new Term();
+        }
+        
+        term.inUse = true;
+        try {
+            int count = 0;
+            int length = text.length();
+            term.length = 0;
+            for (int i = 0; i <= length; i++) {
+                char c = i < length ? toTermChar(text.charAt(i)) : 0;
+                if (c != 0) {
+                    term.append(c);
+                    continue;
+                }
+                
+                if (term.length >= MIN_TERM_LENGTH) {
+                    consumer.accept(term);
+                    count++;
+                }
+                term.length = 0;
+            }
+            return count;
+        } finally {
+            term.length = 0;
+            term.inUse = false;
+        }
+    }
+    
+    /**
+     * Get the terms of the text in order, including repeated terms
+     */
+    public static List<String> tokens(CharSequence text) {
+        List<String> tokens = new ArrayList<>();
+        forEachTerm(text, term -> tokens.add(term.toString()));
+        return tokens;
+    }
+    
+    /**
+     * Get the distinct terms of the text
+     */
+    public static Set<String> termSet(CharSequence text) {
+        Set<String> terms = new HashSet<>();
+        forEachTerm(text, term -> terms.add(term.toString()));
+        return terms;
+    }
+    
+    /**
+     * Lower-case an ASCII letter or digit, or return 0 for a separator
+     */
+    private static char toTermChar(char c) {
+        if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+            return c;
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return (char) (c + ('a' - 'A'));
+        }
+        return 0;
+    }
+    
+    /**
+     * Reusable view of the current term
+     */
+    public static final class Term implements CharSequence {
+        private char[] chars = new char[32];
+        private int length;
+        private boolean inUse;
+        
+        private Term() {
+        }
+        
+        private void append(char c) {
+            if (length == chars.length) {
+                chars = Arrays.copyOf(chars, length * 2);
+            }
+            chars[length++] = c;
+        }
+        
+        @Override
+        public int length() {
+            return length;
+        }
+        
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+            }
+            return chars[index];
+        }
+        
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+        
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+    }
+}
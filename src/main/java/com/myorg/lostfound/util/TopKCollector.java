@@ -0,0 +1,90 @@
+package com.myorg.lostfound.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Bounded collector keeping the K highest scored items seen so far.
+ * Backed by a min-heap of size K, so offering n items costs O(n log K) instead of a full sort.
+ */
+public class TopKCollector<T> {
+    
+    private final int k;
+    private final PriorityQueue<Entry<T>> heap;
+    
+    public TopKCollector(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("K must be positive");
+        }
+        this.k = k;
+        this.heap = new PriorityQueue<>(Math.min(k, 1024) + 1, Comparator.comparingDouble(entry -> entry.score));
+    }
+    
+    /**
+     * Offer an item with its score
+     * 
+     * @return true if the item is currently among the top K
+     */
+    public boolean offer(T item, double score) {
+        if (heap.size() < k) {
+            heap.add(new Entry<>(item, score));
+            return true;
+        }
+        if (score <= heap.peek().score) {
+            return false;
+        }
+        heap.poll();
+        heap.add(new Entry<>(item, score));
+        return true;
+    }
+    
+    /**
+     * Get the lowest score an item must beat to enter the top K, or negative infinity while the collector is not full
+     */
+    public double threshold() {
+        return heap.size() < k ? Double.NEGATIVE_INFINITY : heap.peek().score;
+    }
+    
+    /**
+     * Merge all items of another collector into this one
+     */
+    public void addAll(TopKCollector<T> other) {
+        for (Entry<T> entry : other.heap) {
+            offer(entry.item, entry.score);
+        }
+    }
+    
+    public int size() {
+        return heap.size();
+    }
+    
+    public int getK() {
+        return k;
+    }
+    
+    /**
+     * Get the collected items ordered by descending score
+     */
+    public List<T> toSortedList() {
+        List<Entry<T>> entries = new ArrayList<>(heap);
+        entries.sort((a, b) -> Double.compare(b.score, a.score));
+        
+        List<T> result = new ArrayList<>(entries.size());
+        for (Entry<T> entry : entries) {
+            result.add(entry.item);
+        }
+        return result;
+    }
+    
+    private static final class Entry<T> {
+        private final T item;
+        private final double score;
+        
+        private Entry(T item, double score) {
+            this.item = item;
+            this.score = score;
+        }
+    }
+}
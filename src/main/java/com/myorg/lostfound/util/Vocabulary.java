@@ -0,0 +1,196 @@
+package com.myorg.lostfound.util;
+
+import java.util.Arrays;
+
+/**
+ * Term dictionary assigning every distinct term a dense int id, together with the per-term
+ * document frequency and IDF statistics stored in primitive arrays indexed by that id.
+ *
+ * Terms are looked up by any CharSequence, so the reusable {@link Tokenizer.Term} buffer can be resolved to an id
+ * without creating a String. Each term String is created once, when the term is first interned.
+ * Ids are never reused: a term whose document frequency drops to zero keeps its id and has an IDF of zero.
+ */
+public class Vocabulary {
+    
+    private String[] terms;
+    private int[] termHashes;
+    private int[] documentFrequency;
+    private double[] idf;
+    private int size;
+    
+    // Open-addressing table of term id + 1 (0 marks an empty slot)
+    private int[] slots;
+    private int mask;
+    
+    public Vocabulary() {
+        this.terms = new String[64];
+        this.termHashes = new int[64];
+        this.documentFrequency = new int[64];
+        this.idf = new double[64];
+        this.slots = new int[128];
+        this.mask = slots.length - 1;
+        this.size = 0;
+    }
+    
+    /**
+     * Rebuild a vocabulary from previously saved statistics; the term at index i gets id i
+     * 
+     * @param terms Distinct terms in id order
+     * @param documentFrequency Document frequency per term id
+     * @param idf IDF per term id
+     */
+    public static Vocabulary restore(String[] terms, int[] documentFrequency, double[] idf) {
+        int size = terms.length;
+        int capacity = Math.max(64, Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1);
+        
+        Vocabulary vocabulary = new Vocabulary();
+        vocabulary.terms = Arrays.copyOf(terms, capacity);
+        vocabulary.documentFrequency = Arrays.copyOf(documentFrequency, capacity);
+        vocabulary.idf = Arrays.copyOf(idf, capacity);
+        vocabulary.termHashes = new int[capacity];
+        for (int id = 0; id < size; id++) {
+            vocabulary.termHashes[id] = hash(terms[id]);
+        }
+        vocabulary.size = size;
+        vocabulary.rehash(capacity * 2);
+        return vocabulary;
+    }
+    
+    /**
+     * Get the id of a term, adding the term if it is new
+     */
+    public int intern(CharSequence term) {
+        int hash = hash(term);
+        int slot = findSlot(term, hash);
+        if (slots[slot] != 0) {
+            return slots[slot] - 1;
+        }
+        
+        int id = size++;
+        if (id == terms.length) {
+            int capacity = terms.length * 2;
+            terms = Arrays.copyOf(terms, capacity);
+            termHashes = Arrays.copyOf(termHashes, capacity);
+            documentFrequency = Arrays.copyOf(documentFrequency, capacity);
+            idf = Arrays.copyOf(idf, capacity);
+        }
+        terms[id] = term.toString();
+        termHashes[id] = hash;
+        slots[slot] = id + 1;
+        
+        // Keep the table at most half full
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return id;
+    }
+    
+    /**
+     * Get the id of a term, or -1 if the term is unknown
+     */
+    public int idOf(CharSequence term) {
+        int slot = findSlot(term, hash(term));
+        return slots[slot] - 1;
+    }
+    
+    /**
+     * Get the term with the given id
+     */
+    public String getTerm(int id) {
+        return terms[id];
+    }
+    
+    /**
+     * Get the number of interned terms
+     */
+    public int size() {
+        return size;
+    }
+    
+    public int getDocumentFrequency(int id) {
+        return documentFrequency[id];
+    }
+    
+    public void incrementDocumentFrequency(int id) {
+        documentFrequency[id]++;
+    }
+    
+    public void decrementDocumentFrequency(int id) {
+        if (documentFrequency[id] > 0) {
+            documentFrequency[id]--;
+        }
+    }
+    
+    /**
+     * Get the IDF of a term as of the last {@link #computeIdf(int)} call, or 0 for ids this dictionary does not know,
+     * such as terms interned since it was copied
+     */
+    public double getIdf(int id) {
+        return id >= 0 && id < size ? idf[id] : 0.0;
+    }
+    
+    /**
+     * Recompute the IDF of every term: log(total documents / document frequency), or 0 for unused terms
+     */
+    public void computeIdf(int totalDocuments) {
+        for (int id = 0; id < size; id++) {
+            int docFreq = documentFrequency[id];
+            idf[id] = docFreq > 0 ? Math.log((double) totalDocuments / docFreq) : 0.0;
+        }
+    }
+    
+    /**
+     * Create an independent copy of the dictionary and its statistics
+     */
+    public Vocabulary copy() {
+        Vocabulary copy = new Vocabulary();
+        copy.terms = Arrays.copyOf(terms, terms.length);
+        copy.termHashes = Arrays.copyOf(termHashes, termHashes.length);
+        copy.documentFrequency = Arrays.copyOf(documentFrequency, documentFrequency.length);
+        copy.idf = Arrays.copyOf(idf, idf.length);
+        copy.slots = Arrays.copyOf(slots, slots.length);
+        copy.mask = mask;
+        copy.size = size;
+        return copy;
+    }
+    
+    private int findSlot(CharSequence term, int hash) {
+        int slot = mix(hash) & mask;
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (termHashes[id] == hash && terms[id].contentEquals(term)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+    
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = mix(termHashes[id]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+    
+    /**
+     * Hash a term the same way String.hashCode does, without requiring a String
+     */
+    private static int hash(CharSequence term) {
+        int hash = 0;
+        for (int i = 0; i < term.length(); i++) {
+            hash = 31 * hash + term.charAt(i);
+        }
+        return hash;
+    }
+    
+    private static int mix(int hash) {
+        int mixed = hash * 0x9E3779B9;
+        return mixed ^ (mixed >>> 16);
+    }
+}
@@ -0,0 +1,129 @@
+package com.myorg.lostfound.service;
+
+import com.myorg.lostfound.dto.BatchMatchRequestDto;
+import com.myorg.lostfound.dto.LostItemMatchResultDto;
+import com.myorg.lostfound.dto.ReverseMatchRequestDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IncrementalMatchServiceTest {
+
+    private MatchService matchService;
+    private MatchStoreService matchStoreService;
+    private ThreadPoolTaskExecutor executor;
+    private IncrementalMatchService service;
+
+    @BeforeEach
+    void setUp() {
+        matchService = mock(MatchService.class);
+        matchStoreService = mock(MatchStoreService.class);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+
+        service = new IncrementalMatchService();
+        ReflectionTestUtils.setField(service, "matchService", matchService);
+        ReflectionTestUtils.setField(service, "matchStoreService", matchStoreService);
+        ReflectionTestUtils.setField(service, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(service, "matchIncrementalExecutor", executor);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "delayMs", 200L);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "maxPending", 100);
+        ReflectionTestUtils.setField(service, "daysBefore", 7);
+        ReflectionTestUtils.setField(service, "daysAfter", 30);
+        ReflectionTestUtils.setField(service, "limit", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        executor.shutdown();
+    }
+
+    @Test
+    void drainMatchesEveryPendingItemOnce() {
+        when(matchService.findLostItemMatches(any())).thenReturn(Arrays.asList(lostItemMatch(1L), lostItemMatch(9L)));
+
+        for (long id = 1; id <= 5; id++) {
+            service.onLostItemCreated(id);
+        }
+        // Repeated events collapse into one
+        service.onLostItemCreated(3L);
+        service.onFoundItemCreated(20L);
+        assertEquals(6, service.getPendingCount());
+
+        // Five lost items in batches of at most two
+        ArgumentCaptor<BatchMatchRequestDto> batches = ArgumentCaptor.forClass(BatchMatchRequestDto.class);
+        verify(matchService, timeout(5000).times(3)).findMatchesBatch(batches.capture(), any());
+        Set<Long> batchedIds = new HashSet<>();
+        for (BatchMatchRequestDto batch : batches.getAllValues()) {
+            assertTrue(batch.getLostItemIds().size() <= 2);
+            batchedIds.addAll(batch.getLostItemIds());
+        }
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L), batchedIds);
+
+        // The reverse window mirrors the lost item window
+        ArgumentCaptor<ReverseMatchRequestDto> reverse = ArgumentCaptor.forClass(ReverseMatchRequestDto.class);
+        verify(matchService, timeout(5000)).findLostItemMatches(reverse.capture());
+        assertEquals(20L, reverse.getValue().getFoundItemId());
+        assertEquals(30, reverse.getValue().getDaysBefore());
+        assertEquals(7, reverse.getValue().getDaysAfter());
+
+        // Lost item 1 was matched by this drain already, so only lost item 9 is added for the found item
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LostItemMatchResultDto>> added = ArgumentCaptor.forClass(List.class);
+        verify(matchStoreService, timeout(5000)).addPendingMatches(eq(20L), added.capture(), eq(10));
+        assertEquals(Arrays.asList(9L), added.getValue().stream()
+                .map(LostItemMatchResultDto::getLostItemId)
+                .collect(Collectors.toList()));
+        assertEquals(0, service.getPendingCount());
+    }
+
+    @Test
+    void itemsQueuedAfterADrainAreDrainedAgain() {
+        service.onLostItemCreated(1L);
+        verify(matchService, timeout(5000).times(1)).findMatchesBatch(any(BatchMatchRequestDto.class), any());
+
+        service.onLostItemCreated(2L);
+        ArgumentCaptor<BatchMatchRequestDto> batches = ArgumentCaptor.forClass(BatchMatchRequestDto.class);
+        verify(matchService, timeout(5000).times(2)).findMatchesBatch(batches.capture(), any());
+        assertEquals(Arrays.asList(2L), batches.getAllValues().get(1).getLostItemIds());
+        assertEquals(0, service.getPendingCount());
+    }
+
+    @Test
+    void fullQueueDropsNewItems() {
+        ReflectionTestUtils.setField(service, "maxPending", 2);
+        ReflectionTestUtils.setField(service, "delayMs", 60000L);
+
+        service.onLostItemCreated(1L);
+        service.onLostItemCreated(2L);
+        service.onLostItemCreated(3L);
+
+        assertEquals(2, service.getPendingCount());
+    }
+
+    private static LostItemMatchResultDto lostItemMatch(Long lostItemId) {
+        LostItemMatchResultDto result = new LostItemMatchResultDto();
+        result.setLostItemId(lostItemId);
+        return result;
+    }
+}
@@ -0,0 +1,111 @@
+package com.myorg.lostfound.service;
+
+import com.myorg.lostfound.dto.BatchMatchRequestDto;
+import com.myorg.lostfound.model.LostItem;
+import com.myorg.lostfound.repository.LostItemRepository;
+import com.myorg.lostfound.repository.MatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MatchPrecomputeServiceTest {
+
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2024, 3, 4, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    private final List<LostItem> lostItems = new ArrayList<>();
+    private final List<Long> matchedLostItemIds = new CopyOnWriteArrayList<>();
+    private volatile Long failingLostItemId;
+    private Path checkpoint;
+    private MatchPrecomputeService service;
+
+    @BeforeEach
+    void setUp() {
+        // One lost item per 7-day partition
+        lostItems.add(lostItem(1L, FIRST_DAY.plusDays(1)));
+        lostItems.add(lostItem(2L, FIRST_DAY.plusDays(8)));
+        lostItems.add(lostItem(3L, FIRST_DAY.plusDays(20)));
+
+        LostItemRepository lostItemRepository = mock(LostItemRepository.class);
+        when(lostItemRepository.findMinDate()).thenReturn(FIRST_DAY.plusDays(1));
+        when(lostItemRepository.findMaxDate()).thenReturn(FIRST_DAY.plusDays(20));
+        when(lostItemRepository.findByDateGreaterThanEqualAndDateLessThan(any(), any())).thenAnswer(invocation -> {
+            LocalDateTime start = invocation.getArgument(0);
+            LocalDateTime end = invocation.getArgument(1);
+            return lostItems.stream()
+                    .filter(item -> !item.getDate().isBefore(start) && item.getDate().isBefore(end))
+                    .collect(Collectors.toList());
+        });
+
+        MatchService matchService = mock(MatchService.class);
+        doAnswer(invocation -> {
+            BatchMatchRequestDto request = invocation.getArgument(0);
+            if (request.getLostItemIds().contains(failingLostItemId)) {
+                throw new IllegalStateException("Database unavailable");
+            }
+            matchedLostItemIds.addAll(request.getLostItemIds());
+            return null;
+        }).when(matchService).findMatchesBatch(any(BatchMatchRequestDto.class), any());
+
+        checkpoint = directory.resolve("precompute.checkpoint");
+        service = new MatchPrecomputeService();
+        ReflectionTestUtils.setField(service, "matchService", matchService);
+        ReflectionTestUtils.setField(service, "lostItemRepository", lostItemRepository);
+        ReflectionTestUtils.setField(service, "matchStoreService", mock(MatchStoreService.class));
+        ReflectionTestUtils.setField(service, "matchRepository", mock(MatchRepository.class));
+        ReflectionTestUtils.setField(service, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        // A single worker processes the partitions in date order
+        ReflectionTestUtils.setField(service, "threads", 1);
+        ReflectionTestUtils.setField(service, "partitionDays", 7);
+        ReflectionTestUtils.setField(service, "checkpointFile", checkpoint.toString());
+    }
+
+    @Test
+    void failedRunResumesFromItsCheckpoint() {
+        failingLostItemId = 3L;
+        assertThrows(IllegalStateException.class, () -> service.runPrecomputation());
+        assertEquals(Arrays.asList(1L, 2L), matchedLostItemIds);
+        assertTrue(Files.exists(checkpoint));
+
+        failingLostItemId = null;
+        matchedLostItemIds.clear();
+        assertEquals(1, service.runPrecomputation());
+        assertEquals(Arrays.asList(3L), matchedLostItemIds);
+        assertFalse(Files.exists(checkpoint));
+    }
+
+    @Test
+    void checkpointOfAnotherDayIsIgnored() throws Exception {
+        Files.write(checkpoint, Arrays.asList(
+                "run=" + LocalDate.now().minusDays(1),
+                "completed=" + FIRST_DAY.toLocalDate() + "," + FIRST_DAY.plusDays(7).toLocalDate()));
+
+        assertEquals(3, service.runPrecomputation());
+        assertEquals(Arrays.asList(1L, 2L, 3L), matchedLostItemIds);
+        assertFalse(Files.exists(checkpoint));
+    }
+
+    private static LostItem lostItem(Long id, LocalDateTime date) {
+        return new LostItem(id, null, "Lost " + id, "black wallet", "Accessories", "Library", date, null, null);
+    }
+}
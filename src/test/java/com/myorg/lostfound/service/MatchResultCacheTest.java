@@ -0,0 +1,104 @@
+package com.myorg.lostfound.service;
+
+import com.myorg.lostfound.dto.MatchRequestDto;
+import com.myorg.lostfound.dto.MatchResultDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchResultCacheTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 5, 10, 12, 0);
+
+    private MatchResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new MatchResultCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60000L);
+    }
+
+    @Test
+    void foundItemDatedInAWindowEvictsOnlyThatWindow() {
+        MatchRequestDto may = put(1L, DAY.minusDays(3), DAY.plusDays(3), 10L);
+        MatchRequestDto june = put(2L, DAY.plusDays(30), DAY.plusDays(37), 20L);
+
+        cache.invalidateFoundItem(99L, DAY.plusDays(2));
+
+        assertNull(cache.get(may));
+        assertNotNull(cache.get(june));
+    }
+
+    @Test
+    void foundItemListedInResultsEvictsEntriesOutsideItsNewWindow() {
+        MatchRequestDto listing = put(1L, DAY.minusDays(3), DAY.plusDays(3), 10L);
+        MatchRequestDto other = put(2L, DAY.minusDays(3), DAY.plusDays(3), 20L);
+
+        // Moved far outside every window, but still listed by the first entry
+        cache.invalidateFoundItem(10L, DAY.plusYears(1));
+        assertNull(cache.get(listing));
+        assertNotNull(cache.get(other));
+
+        // Deleted items have no date left and are found through the results only
+        cache.invalidateFoundItem(20L, null);
+        assertNull(cache.get(other));
+    }
+
+    @Test
+    void windowsWiderThanAYearAreStillInvalidated() {
+        MatchRequestDto wide = put(1L, DAY.minusYears(2), DAY.plusDays(1), 10L);
+
+        cache.invalidateFoundItem(99L, DAY.minusDays(400));
+
+        assertNull(cache.get(wide));
+    }
+
+    @Test
+    void lostItemChangeEvictsOnlyItsOwnEntries() {
+        MatchRequestDto first = put(1L, DAY.minusDays(3), DAY.plusDays(3), 10L);
+        MatchRequestDto second = put(2L, DAY.minusDays(3), DAY.plusDays(3), 10L);
+
+        cache.invalidateLostItem(1L);
+
+        assertNull(cache.get(first));
+        assertNotNull(cache.get(second));
+    }
+
+    @Test
+    void resultsComputedAcrossAnInvalidationAreNotCached() {
+        MatchRequestDto request = new MatchRequestDto(1L);
+        long generation = cache.getGeneration();
+
+        cache.invalidateFoundItem(99L, DAY);
+        cache.put(request, DAY.minusDays(3), DAY.plusDays(3), results(10L), generation);
+
+        assertNull(cache.get(request));
+        assertEquals(0, cache.size());
+    }
+
+    private MatchRequestDto put(Long lostItemId, LocalDateTime startDate, LocalDateTime endDate,
+                                Long... foundItemIds) {
+        MatchRequestDto request = new MatchRequestDto(lostItemId);
+        cache.put(request, startDate, endDate, results(foundItemIds), cache.getGeneration());
+        assertNotNull(cache.get(request));
+        return request;
+    }
+
+    private static List<MatchResultDto> results(Long... foundItemIds) {
+        List<MatchResultDto> results = new ArrayList<>();
+        for (Long foundItemId : foundItemIds) {
+            MatchResultDto result = new MatchResultDto();
+            result.setFoundItemId(foundItemId);
+            results.add(result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,199 @@
+package com.myorg.lostfound.service;
+
+import com.myorg.lostfound.dto.MatchRequestDto;
+import com.myorg.lostfound.dto.MatchResultDto;
+import com.myorg.lostfound.model.FoundItem;
+import com.myorg.lostfound.model.LostItem;
+import com.myorg.lostfound.model.User;
+import com.myorg.lostfound.repository.FoundItemRepository;
+import com.myorg.lostfound.repository.LostItemRepository;
+import com.myorg.lostfound.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MatchServiceTest {
+
+    private static final String[] WORDS = {"black", "leather", "wallet", "iphone", "keys", "ring", "blue", "umbrella",
+            "red", "backpack", "silver", "watch", "glasses", "case", "card", "brown", "jacket", "laptop", "charger",
+            "bottle"};
+    private static final String[] LOCATIONS = {"Library", "Main Library", "Cafeteria", "Gym"};
+    private static final String[] CATEGORIES = {"Accessories", "Electronics", "Bags"};
+    private static final int FOUND_ITEMS = 600;
+    private static final int LOST_ITEMS = 20;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LostItemRepository lostItemRepository;
+
+    @Autowired
+    private FoundItemRepository foundItemRepository;
+
+    @Autowired
+    private MatchIndexService matchIndexService;
+
+    @Autowired
+    private MatchService matchService;
+
+    private final List<Long> lostItemIds = new ArrayList<>();
+
+    @BeforeAll
+    void setUp() throws InterruptedException {
+        User user = new User();
+        user.setName("Tester");
+        user.setEmail("tester@example.com");
+        user.setPhone("555-0100");
+        user = userRepository.save(user);
+
+        Random random = new Random(7);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 8, 0);
+        for (int i = 0; i < FOUND_ITEMS; i++) {
+            // Every tenth item has no description and is scored on location and date only
+            String description = i % 10 == 0 ? null : description(random);
+            foundItemRepository.save(new FoundItem(null, user, "Found " + i, description,
+                    CATEGORIES[random.nextInt(CATEGORIES.length)], LOCATIONS[random.nextInt(LOCATIONS.length)],
+                    start.plusHours(random.nextInt(90 * 24)), null, null));
+        }
+        for (int i = 0; i < LOST_ITEMS; i++) {
+            lostItemIds.add(lostItemRepository.save(new LostItem(null, user, "Lost " + i, description(random),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)], LOCATIONS[random.nextInt(LOCATIONS.length)],
+                    start.plusDays(10 + random.nextInt(70)), null, null)).getId());
+        }
+
+        matchIndexService.initialize();
+        long deadline = System.currentTimeMillis() + 30000;
+        while (!indexed() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(indexed(), "Match index was not built in time");
+    }
+
+    @Test
+    void prunedTopKEqualsExhaustiveScoring() {
+        Object parallelThreshold = ReflectionTestUtils.getField(matchService, "parallelThreshold");
+        Object parallelShardSize = ReflectionTestUtils.getField(matchService, "parallelShardSize");
+        for (boolean parallel : new boolean[] {false, true}) {
+            for (Double minScore : new Double[] {null, 0.45}) {
+                ReflectionTestUtils.setField(matchService, "parallelThreshold", parallel ? 1 : Integer.MAX_VALUE);
+                ReflectionTestUtils.setField(matchService, "parallelShardSize", 16);
+                try {
+                    for (Long lostItemId : lostItemIds) {
+                        MatchRequestDto request = request(lostItemId, "db", minScore);
+                        ReflectionTestUtils.setField(matchService, "maxScorePruningEnabled", false);
+                        List<MatchResultDto> exhaustive = matchService.findMatches(request);
+                        ReflectionTestUtils.setField(matchService, "maxScorePruningEnabled", true);
+                        List<MatchResultDto> pruned = matchService.findMatches(request);
+
+                        assertSameRanking(exhaustive, pruned,
+                                "lost item " + lostItemId + ", parallel " + parallel + ", min score " + minScore);
+                    }
+                } finally {
+                    ReflectionTestUtils.setField(matchService, "maxScorePruningEnabled", true);
+                    ReflectionTestUtils.setField(matchService, "parallelThreshold", parallelThreshold);
+                    ReflectionTestUtils.setField(matchService, "parallelShardSize", parallelShardSize);
+                }
+            }
+        }
+    }
+
+    @Test
+    void memoryAndDatabaseRetrieversReturnTheSameMatches() {
+        // The memory retriever skips found items sharing no term with the lost item; a minimum score above the
+        // best location and date score (0.4) keeps those out of the database results too
+        int matched = 0;
+        for (MatchRequestDto.CategoryMode categoryMode : MatchRequestDto.CategoryMode.values()) {
+            for (Long lostItemId : lostItemIds) {
+                MatchRequestDto database = request(lostItemId, "db", 0.45);
+                database.setCategoryMode(categoryMode);
+                MatchRequestDto memory = request(lostItemId, "memory", 0.45);
+                memory.setCategoryMode(categoryMode);
+
+                List<MatchResultDto> expected = matchService.findMatches(database);
+                assertSameRanking(expected, matchService.findMatches(memory),
+                        "lost item " + lostItemId + ", category mode " + categoryMode);
+                matched += expected.size();
+            }
+        }
+        assertTrue(matched > 0);
+    }
+
+    @Test
+    void memoryRetrieverAppliesTheLocationFilter() {
+        for (Long lostItemId : lostItemIds) {
+            MatchRequestDto database = request(lostItemId, "db", 0.45);
+            database.setLocationFilter("library");
+            MatchRequestDto memory = request(lostItemId, "memory", 0.45);
+            memory.setLocationFilter("library");
+
+            List<MatchResultDto> matches = matchService.findMatches(memory);
+            assertSameRanking(matchService.findMatches(database), matches, "lost item " + lostItemId);
+            for (MatchResultDto match : matches) {
+                assertTrue(match.getFoundItemLocation().toLowerCase().contains("library"));
+            }
+        }
+    }
+
+    private boolean indexed() {
+        MatchIndexSnapshot snapshot = matchIndexService.getSnapshot();
+        return snapshot != null && snapshot.getFoundItemCount() == FOUND_ITEMS
+                && snapshot.getLostItemCount() == LOST_ITEMS;
+    }
+
+    private static MatchRequestDto request(Long lostItemId, String retriever, Double minScore) {
+        MatchRequestDto request = new MatchRequestDto(lostItemId);
+        request.setDaysBefore(14);
+        request.setDaysAfter(14);
+        request.setLimit(10);
+        request.setMinScore(minScore);
+        request.setRetriever(retriever);
+        return request;
+    }
+
+    private static String description(Random random) {
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " "
+                + WORDS[random.nextInt(WORDS.length)];
+    }
+
+    /**
+     * Assert equal scores rank by rank and the same items above the lowest score; items tied at the lowest score
+     * may be cut differently
+     */
+    private static void assertSameRanking(List<MatchResultDto> expected, List<MatchResultDto> actual, String message) {
+        assertEquals(expected.size(), actual.size(), message);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getMatchScore(), actual.get(i).getMatchScore(), 1e-9, message);
+        }
+        if (!expected.isEmpty()) {
+            double lowest = expected.get(expected.size() - 1).getMatchScore();
+            assertEquals(scoresAbove(expected, lowest), scoresAbove(actual, lowest), message);
+        }
+    }
+
+    private static Map<Long, Double> scoresAbove(List<MatchResultDto> results, double lowest) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (MatchResultDto result : results) {
+            if (result.getMatchScore() > lowest + 1e-9) {
+                scores.put(result.getFoundItemId(), result.getMatchScore());
+            }
+        }
+        return scores;
+    }
+}
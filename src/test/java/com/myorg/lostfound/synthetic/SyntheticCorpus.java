@@ -0,0 +1,174 @@
+package com.myorg.lostfound.synthetic;
+
+import com.myorg.lostfound.model.FoundItem;
+import com.myorg.lostfound.model.LostItem;
+import com.myorg.lostfound.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic generator of realistic lost and found items, shared by the benchmarks and the load-test tools.
+ * Descriptions draw their terms from a Zipf-like distribution over a fixed vocabulary: common item words
+ * first, then a long tail of brand- and serial-like terms, so posting lists and IDF values look like
+ * those of a real corpus. Categories are skewed towards electronics and accessories, locations are campus
+ * buildings (the popular ones more often) with an optional spot inside, and dates are spread uniformly
+ * over one year.
+ */
+public final class SyntheticCorpus {
+    
+    public static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    public static final int DAYS = 365;
+    
+    private static final List<String> COMMON_TERMS = Arrays.asList(
+            "black", "wallet", "phone", "keys", "bag", "blue", "red", "leather", "iphone", "umbrella",
+            "backpack", "laptop", "charger", "card", "silver", "gold", "watch", "book", "bottle", "jacket",
+            "scarf", "glasses", "earbuds", "airpods", "ring", "necklace", "bracelet", "headphones", "brown", "green",
+            "white", "grey", "pink", "purple", "small", "large", "student", "passport", "license", "notebook",
+            "tablet", "camera", "hat", "gloves", "shoes", "sweater", "hoodie", "purse", "keychain", "lanyard",
+            "samsung", "apple", "nike", "adidas", "case", "cover", "cracked", "sticker", "name", "initials",
+            "metal", "plastic", "fabric", "zipper", "pocket", "strap", "charging", "cable", "usb", "pen");
+    private static final int VOCABULARY_SIZE = 5000;
+    
+    private static final String[] CATEGORIES = {
+            "Electronics", "Accessories", "Bags", "Clothing", "Documents", "Wallets",
+            "Keys", "Jewelry", "Books", "Sports", "Toys", "Other"};
+    private static final double[] CATEGORY_WEIGHTS = {24, 14, 12, 11, 9, 8, 7, 5, 4, 3, 2, 1};
+    
+    private static final String[] BUILDINGS = {
+            "Library", "Student Center", "Main Hall", "Cafeteria", "Gym", "Science Building", "Engineering Building",
+            "Lecture Hall A", "Lecture Hall B", "Bookstore", "Dormitory North", "Dormitory South", "Parking Lot",
+            "Bus Stop", "Auditorium", "Swimming Pool", "Art Studio", "Computer Lab", "Main Gate", "Campus Park"};
+    private static final String[] SPOTS = {
+            "", "", "", " Entrance", " Lobby", " 2nd Floor", " 3rd Floor", " Restrooms", " Study Area", " Lockers"};
+    
+    private final Random random;
+    private final String[] vocabulary;
+    private final double[] termWeights;
+    private final double[] categoryWeights;
+    private final double[] buildingWeights;
+    
+    public SyntheticCorpus(long seed) {
+        this.random = new Random(seed);
+        this.vocabulary = new String[VOCABULARY_SIZE];
+        for (int rank = 0; rank < VOCABULARY_SIZE; rank++) {
+            vocabulary[rank] = rank < COMMON_TERMS.size()
+                    ? COMMON_TERMS.get(rank)
+                    : "tag" + Integer.toString(rank, 36);
+        }
+        this.termWeights = cumulativeZipf(VOCABULARY_SIZE);
+        this.categoryWeights = cumulative(CATEGORY_WEIGHTS);
+        this.buildingWeights = cumulativeZipf(BUILDINGS.length);
+    }
+    
+    /**
+     * Generate a description of 4 to 12 terms
+     */
+    public String description() {
+        int terms = 4 + random.nextInt(9);
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < terms; i++) {
+            if (i > 0) {
+                description.append(' ');
+            }
+            description.append(vocabulary[pick(termWeights)]);
+        }
+        return description.toString();
+    }
+    
+    /**
+     * Generate the given number of descriptions
+     */
+    public List<String> descriptions(int count) {
+        List<String> descriptions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            descriptions.add(description());
+        }
+        return descriptions;
+    }
+    
+    /**
+     * Make a title from the first terms of a description, e.g. "Black leather wallet"
+     */
+    public String title(String description) {
+        String[] terms = description.split(" ", 4);
+        String title = String.join(" ", Arrays.asList(terms).subList(0, Math.min(terms.length, 3)));
+        return Character.toUpperCase(title.charAt(0)) + title.substring(1);
+    }
+    
+    /**
+     * Pick a category, skewed towards the common ones
+     */
+    public String category() {
+        return CATEGORIES[pick(categoryWeights)];
+    }
+    
+    /**
+     * Pick a campus location, e.g. "Library 2nd Floor"
+     */
+    public String location() {
+        return BUILDINGS[pick(buildingWeights)] + SPOTS[random.nextInt(SPOTS.length)];
+    }
+    
+    /**
+     * Pick a date within the year starting at {@link #START}
+     */
+    public LocalDateTime date() {
+        return START.plusSeconds((long) (random.nextDouble() * DAYS * 24 * 3600));
+    }
+    
+    /**
+     * Generate found items with ids 1 to count
+     */
+    public List<FoundItem> foundItems(int count, User user) {
+        List<FoundItem> items = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            String description = description();
+            LocalDateTime date = date();
+            items.add(new FoundItem((long) i, user, title(description), description, category(), location(),
+                    date, null, date));
+        }
+        return items;
+    }
+    
+    /**
+     * Generate lost items with ids 1 to count
+     */
+    public List<LostItem> lostItems(int count, User user) {
+        List<LostItem> items = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            String description = description();
+            LocalDateTime date = date();
+            items.add(new LostItem((long) i, user, title(description), description, category(), location(),
+                    date, null, date));
+        }
+        return items;
+    }
+    
+    private int pick(double[] cumulativeWeights) {
+        double target = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int index = Arrays.binarySearch(cumulativeWeights, target);
+        return index >= 0 ? index : -index - 1;
+    }
+    
+    private static double[] cumulativeZipf(int size) {
+        double[] weights = new double[size];
+        for (int rank = 0; rank < size; rank++) {
+            weights[rank] = 1.0 / (rank + 1);
+        }
+        return cumulative(weights);
+    }
+    
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+}
@@ -0,0 +1,122 @@
+package com.myorg.lostfound.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CopyOnWriteHashMapTest {
+
+    @Test
+    void behavesLikeAHashMapAcrossResizes() {
+        CopyOnWriteHashMap<Long, Long> map = new CopyOnWriteHashMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        for (long i = 0; i < 5000; i++) {
+            map.put(i, i * 2);
+            expected.put(i, i * 2);
+        }
+        for (long i = 0; i < 5000; i += 3) {
+            assertEquals(i * 2, map.remove(i));
+            expected.remove(i);
+        }
+
+        assertEquals(expected.size(), map.size());
+        Map<Long, Long> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+        assertNull(map.remove(0L));
+    }
+
+    @Test
+    void copiesAreIndependent() {
+        CopyOnWriteHashMap<Long, String> map = new CopyOnWriteHashMap<>();
+        for (long i = 0; i < 2000; i++) {
+            map.put(i, "v" + i);
+        }
+        CopyOnWriteHashMap<Long, String> copy = map.copy();
+
+        map.put(1L, "changed");
+        map.remove(2L);
+        map.put(5000L, "added");
+        copy.remove(3L);
+
+        assertEquals("v1", copy.get(1L));
+        assertEquals("v2", copy.get(2L));
+        assertFalse(copy.containsKey(5000L));
+        assertEquals(1999, copy.size());
+        assertEquals("changed", map.get(1L));
+        assertEquals("v3", map.get(3L));
+        assertEquals(2000, map.size());
+    }
+
+    @Test
+    void olderCopiesSurviveRepeatedCopyAndWrite() {
+        CopyOnWriteHashMap<Long, Long> map = new CopyOnWriteHashMap<>();
+        for (long i = 0; i < 3000; i++) {
+            map.put(i, 0L);
+        }
+        CopyOnWriteHashMap<Long, Long> first = map.copy();
+        for (long i = 0; i < 3000; i += 7) {
+            map.put(i, 1L);
+        }
+        CopyOnWriteHashMap<Long, Long> second = map.copy();
+        for (long i = 0; i < 3000; i += 7) {
+            map.remove(i);
+        }
+
+        for (long i = 0; i < 3000; i++) {
+            assertEquals(0L, first.get(i));
+            assertEquals(i % 7 == 0 ? 1L : 0L, second.get(i));
+            assertEquals(i % 7 == 0 ? null : 0L, map.get(i));
+        }
+        assertEquals(3000, second.size());
+        assertEquals(3000 - 429, map.size());
+    }
+
+    @Test
+    void keysWithEqualHashesShareALeaf() {
+        CopyOnWriteHashMap<String, Integer> map = new CopyOnWriteHashMap<>();
+        // "Aa" and "BB" have the same hash code, so every combination of them collides
+        List<String> keys = new ArrayList<>(List.of(""));
+        for (int round = 0; round < 7; round++) {
+            List<String> longer = new ArrayList<>();
+            for (String key : keys) {
+                longer.add(key + "Aa");
+                longer.add(key + "BB");
+            }
+            keys = longer;
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            map.put(keys.get(i), i);
+        }
+
+        assertEquals(keys.size(), map.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(i, map.get(keys.get(i)));
+        }
+    }
+
+    @Test
+    void getForUpdateCopiesSharedValuesOnce() {
+        CopyOnWriteHashMap<String, Set<Long>> map = new CopyOnWriteHashMap<>();
+        map.put("wallet", new HashSet<>());
+        map.getForUpdate("wallet", HashSet::new).add(1L);
+        CopyOnWriteHashMap<String, Set<Long>> copy = map.copy();
+
+        Set<Long> updated = map.getForUpdate("wallet", HashSet::new);
+        updated.add(2L);
+        assertSame(updated, map.getForUpdate("wallet", HashSet::new));
+
+        copy.getForUpdate("wallet", HashSet::new).add(3L);
+
+        assertEquals(Set.of(1L, 3L), copy.get("wallet"));
+        assertEquals(Set.of(1L, 2L), map.get("wallet"));
+        assertNull(map.getForUpdate("keys", HashSet::new));
+    }
+}
@@ -0,0 +1,78 @@
+package com.myorg.lostfound.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DayBucketTimeIndexTest {
+
+    @Test
+    void searchReturnsDocumentsInsideTheInclusiveWindowOrderedByTime() {
+        DayBucketTimeIndex index = new DayBucketTimeIndex();
+        index.add(1L, LocalDateTime.of(2024, 3, 1, 23, 0));
+        index.add(2L, LocalDateTime.of(2024, 3, 2, 9, 30));
+        index.add(3L, LocalDateTime.of(2024, 3, 2, 8, 0));
+        index.add(4L, LocalDateTime.of(2024, 3, 5, 12, 0));
+        index.add(5L, LocalDateTime.of(2024, 3, 5, 12, 1));
+
+        assertEquals(Arrays.asList(3L, 2L, 4L),
+                index.search(LocalDateTime.of(2024, 3, 2, 0, 0), LocalDateTime.of(2024, 3, 5, 12, 0)));
+        assertEquals(Arrays.asList(1L, 3L, 2L, 4L, 5L),
+                index.search(LocalDateTime.of(2024, 2, 1, 0, 0), LocalDateTime.of(2024, 4, 1, 0, 0)));
+        assertEquals(Collections.singletonList(2L),
+                index.search(LocalDateTime.of(2024, 3, 2, 9, 30), LocalDateTime.of(2024, 3, 2, 9, 30)));
+        assertTrue(index.search(LocalDateTime.of(2024, 3, 3, 0, 0), LocalDateTime.of(2024, 3, 4, 23, 59)).isEmpty());
+        assertEquals(3, index.getBucketCount());
+    }
+
+    @Test
+    void addMovesDocumentsBetweenBuckets() {
+        DayBucketTimeIndex index = new DayBucketTimeIndex();
+        index.add(1L, LocalDateTime.of(2024, 3, 1, 10, 0));
+        index.add(2L, LocalDateTime.of(2024, 3, 1, 10, 0));
+        index.add(1L, LocalDateTime.of(2024, 3, 7, 10, 0));
+
+        assertEquals(LocalDateTime.of(2024, 3, 7, 10, 0), index.getTime(1L));
+        assertEquals(Collections.singletonList(2L),
+                index.search(LocalDateTime.of(2024, 3, 1, 0, 0), LocalDateTime.of(2024, 3, 1, 23, 59)));
+        assertEquals(2, index.size());
+
+        index.remove(2L);
+        assertFalse(index.contains(2L));
+        assertEquals(1, index.getBucketCount());
+    }
+
+    @Test
+    void copyIsIndependentOfTheOriginal() {
+        DayBucketTimeIndex index = new DayBucketTimeIndex();
+        index.add(1L, LocalDateTime.of(2024, 3, 1, 10, 0));
+        DayBucketTimeIndex copy = index.copy();
+        index.add(2L, LocalDateTime.of(2024, 3, 1, 11, 0));
+
+        assertEquals(Collections.singletonList(1L),
+                copy.search(LocalDateTime.of(2024, 3, 1, 0, 0), LocalDateTime.of(2024, 3, 2, 0, 0)));
+    }
+
+    @Test
+    void copiesShareBucketsUntilEitherSideChangesThem() {
+        DayBucketTimeIndex index = new DayBucketTimeIndex();
+        index.add(1L, LocalDateTime.of(2024, 3, 1, 10, 0));
+        index.add(2L, LocalDateTime.of(2024, 3, 2, 10, 0));
+        DayBucketTimeIndex first = index.copy();
+        index.remove(1L);
+        DayBucketTimeIndex second = index.copy();
+        second.add(3L, LocalDateTime.of(2024, 3, 2, 9, 0));
+        index.add(4L, LocalDateTime.of(2024, 3, 2, 8, 0));
+
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 3, 3, 0, 0);
+        assertEquals(Arrays.asList(1L, 2L), first.search(start, end));
+        assertEquals(Arrays.asList(3L, 2L), second.search(start, end));
+        assertEquals(Arrays.asList(4L, 2L), index.search(start, end));
+        assertEquals(1, index.getBucketCount());
+    }
+}
@@ -0,0 +1,40 @@
+package com.myorg.lostfound.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIntHashMapTest {
+
+    @Test
+    void countsLikeAHashMap() {
+        IntIntHashMap map = new IntIntHashMap(2);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            int key = (i * 7919) % 1237;
+            map.addTo(key, 1);
+            expected.merge(key, 1, Integer::sum);
+        }
+
+        assertEquals(expected.size(), map.size());
+        Map<Integer, Integer> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+        assertEquals(-1, map.get(5000, -1));
+    }
+
+    @Test
+    void clearKeepsMapUsable() {
+        IntIntHashMap map = new IntIntHashMap();
+        map.put(3, 9);
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(3));
+        assertEquals(1, map.addTo(3, 1));
+        assertThrows(IllegalArgumentException.class, () -> map.put(-1, 0));
+    }
+}
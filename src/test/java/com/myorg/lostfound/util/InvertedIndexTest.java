@@ -0,0 +1,39 @@
+package com.myorg.lostfound.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+    @Test
+    void searchReturnsDocumentsSharingAnyTerm() {
+        InvertedIndex index = new InvertedIndex();
+        index.add(1L, Arrays.asList("black", "iphone", "coffee"));
+        index.add(2L, Arrays.asList("brown", "wallet"));
+        index.add(3L, Arrays.asList("black", "umbrella"));
+
+        assertEquals(new HashSet<>(Arrays.asList(1L, 3L)), index.search(Collections.singletonList("black")));
+        assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), index.search(Arrays.asList("iphone", "wallet")));
+        assertTrue(index.search(Collections.singletonList("keys")).isEmpty());
+    }
+
+    @Test
+    void addReplacesAndRemoveDropsPreviousTerms() {
+        InvertedIndex index = new InvertedIndex();
+        index.add(1L, Arrays.asList("black", "iphone"));
+        index.add(1L, Collections.singletonList("wallet"));
+
+        assertTrue(index.search(Collections.singletonList("iphone")).isEmpty());
+        assertEquals(Collections.singleton(1L), index.search(Collections.singletonList("wallet")));
+
+        index.remove(1L);
+        assertFalse(index.contains(1L));
+        assertEquals(0, index.size());
+        assertEquals(0, index.getTermCount());
+    }
+}
@@ -0,0 +1,23 @@
+package com.myorg.lostfound.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JaccardSimilarityTest {
+
+    @Test
+    void comparesTermSets() {
+        // {black, leather, wallet} vs {brown, leather, wallet}: 2 shared out of 4
+        assertEquals(0.5, JaccardSimilarity.compute("Black leather wallet", "brown LEATHER wallet!"), 1e-12);
+        assertEquals(1.0, JaccardSimilarity.compute("wallet wallet black", "black wallet"), 1e-12);
+        assertEquals(0.0, JaccardSimilarity.compute("black wallet", "red umbrella"), 1e-12);
+    }
+
+    @Test
+    void handlesMissingTerms() {
+        assertEquals(1.0, JaccardSimilarity.compute("a an", ""), 1e-12);
+        assertEquals(0.0, JaccardSimilarity.compute("black wallet", "an"), 1e-12);
+        assertEquals(0.0, JaccardSimilarity.compute(null, "black wallet"), 1e-12);
+    }
+}
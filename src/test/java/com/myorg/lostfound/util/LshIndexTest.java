@@ -0,0 +1,84 @@
+package com.myorg.lostfound.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LshIndexTest {
+
+    private final MinHash minHash = new MinHash(40, 42L);
+
+    @Test
+    void searchReturnsSimilarDocumentsOnly() {
+        LshIndex index = new LshIndex(20, 2);
+        index.add(1L, minHash.signature(Arrays.asList("black", "leather", "wallet", "cards", "cash")));
+        index.add(2L, minHash.signature(Arrays.asList("blue", "folding", "umbrella", "handle", "strap")));
+
+        int[] query = minHash.signature(Arrays.asList("black", "leather", "wallet", "cards", "coins"));
+        assertTrue(index.search(query).contains(1L));
+        assertFalse(index.search(query).contains(2L));
+    }
+
+    @Test
+    void recallFollowsTheBandingCurve() {
+        // Pairs of 20 distinct terms in total sharing k of them have an exact Jaccard similarity of k / 20
+        for (int shared : new int[] {2, 4, 10}) {
+            double similarity = shared / 20.0;
+            int unique = (20 - shared) / 2;
+            LshIndex index = new LshIndex(20, 2);
+            int trials = 2000;
+            int found = 0;
+            for (int trial = 0; trial < trials; trial++) {
+                index.add((long) trial, minHash.signature(MinHashTest.terms(trial, 0, shared + unique)));
+                int[] query = minHash.signature(MinHashTest.terms(trial, unique, 20));
+                if (index.search(query).contains((long) trial)) {
+                    found++;
+                }
+            }
+
+            double expected = 1 - Math.pow(1 - Math.pow(similarity, 2), 20);
+            assertEquals(expected, (double) found / trials, 0.04, "Jaccard similarity " + similarity);
+        }
+    }
+
+    @Test
+    void removeAndCopyKeepTablesConsistent() {
+        LshIndex index = new LshIndex(20, 2);
+        int[] signature = minHash.signature(Arrays.asList("silver", "keys", "ring"));
+        index.add(1L, signature);
+        index.add(2L, signature);
+        LshIndex copy = index.copy();
+
+        index.remove(1L);
+        assertFalse(index.contains(1L));
+        assertEquals(1, index.size());
+        assertFalse(index.search(signature).contains(1L));
+        assertTrue(copy.search(signature).contains(1L));
+    }
+
+    @Test
+    void copiesStayIndependentWhenEitherSideChanges() {
+        LshIndex index = new LshIndex(20, 2);
+        int[] signature = minHash.signature(Arrays.asList("brown", "teddy", "bear"));
+        index.add(1L, signature);
+        LshIndex first = index.copy();
+        index.add(2L, signature);
+        LshIndex second = index.copy();
+        second.remove(1L);
+        index.remove(2L);
+
+        assertEquals(Set.of(1L), first.search(signature));
+        assertEquals(Set.of(2L), second.search(signature));
+        assertEquals(Set.of(1L), index.search(signature));
+        assertEquals(1, second.size());
+    }
+
+    @Test
+    void rejectsSignaturesOfTheWrongLength() {
+        LshIndex index = new LshIndex(4, 2);
+        assertThrows(IllegalArgumentException.class, () -> index.add(1L, new int[7]));
+    }
+}
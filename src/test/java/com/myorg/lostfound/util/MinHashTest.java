@@ -0,0 +1,61 @@
+package com.myorg.lostfound.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinHashTest {
+
+    @Test
+    void similarityEstimateTracksJaccardSimilarity() {
+        MinHash minHash = new MinHash(256, 42L);
+        List<String> wallet = Arrays.asList("black", "leather", "wallet", "cards", "cash");
+        List<String> similarWallet = Arrays.asList("black", "leather", "wallet", "cards", "coins");
+        List<String> umbrella = Arrays.asList("blue", "folding", "umbrella", "handle", "strap");
+
+        // Jaccard similarity of the two wallets is 4/6
+        double similar = MinHash.estimateSimilarity(minHash.signature(wallet), minHash.signature(similarWallet));
+        double unrelated = MinHash.estimateSimilarity(minHash.signature(wallet), minHash.signature(umbrella));
+        assertEquals(4.0 / 6.0, similar, 0.15);
+        assertTrue(unrelated < 0.1);
+    }
+
+    @Test
+    void positionsEstimateJaccardSimilarityWithoutBias() {
+        MinHash minHash = new MinHash(40, 42L);
+        // Pairs of 20 distinct terms in total, sharing 10 of them: Jaccard similarity 0.5
+        double total = 0;
+        int pairs = 1000;
+        for (int pair = 0; pair < pairs; pair++) {
+            total += MinHash.estimateSimilarity(minHash.signature(terms(pair, 0, 15)),
+                    minHash.signature(terms(pair, 5, 20)));
+        }
+        assertEquals(0.5, total / pairs, 0.02);
+    }
+
+    @Test
+    void signaturesAreDeterministicPerSeed() {
+        List<String> shingles = Arrays.asList("silver", "keys", "ring");
+
+        assertArrayEquals(new MinHash(16, 7L).signature(shingles), new MinHash(16, 7L).signature(shingles));
+        assertEquals(1.0, MinHash.estimateSimilarity(new MinHash(16, 7L).signature(shingles),
+                new MinHash(16, 7L).signature(Arrays.asList("ring", "keys", "silver", "keys"))));
+        assertNull(new MinHash(16, 7L).signature(Collections.<String>emptyList()));
+    }
+
+    /**
+     * Terms from..to (exclusive) of a numbered document, unique to that document
+     */
+    static List<String> terms(int document, int from, int to) {
+        List<String> terms = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            terms.add("doc" + document + "term" + i);
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,40 @@
+package com.myorg.lostfound.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedInvertedIndexTest {
+
+    @Test
+    void searchIsRestrictedToTheRequestedShards() {
+        ShardedInvertedIndex index = new ShardedInvertedIndex();
+        index.add(1L, "electronics", Arrays.asList("black", "iphone"));
+        index.add(2L, "wallets", Arrays.asList("black", "wallet"));
+        index.add(3L, "umbrellas", Arrays.asList("black", "umbrella"));
+
+        assertEquals(new HashSet<>(Arrays.asList(1L, 2L, 3L)), index.search(Collections.singletonList("black")));
+        assertEquals(new HashSet<>(Arrays.asList(1L, 2L)),
+                index.search(Collections.singletonList("black"), Arrays.asList("electronics", "wallets", "keys")));
+        assertTrue(index.search(Collections.singletonList("iphone"), Collections.singletonList("wallets")).isEmpty());
+    }
+
+    @Test
+    void addMovesDocumentsBetweenShards() {
+        ShardedInvertedIndex index = new ShardedInvertedIndex();
+        index.add(1L, "electronics", Collections.singletonList("iphone"));
+        index.add(1L, "wallets", Collections.singletonList("wallet"));
+
+        assertEquals("wallets", index.getShard(1L));
+        assertEquals(Collections.singleton("wallets"), index.getShards());
+        assertEquals(1, index.size());
+
+        index.remove(1L);
+        assertFalse(index.contains(1L));
+        assertTrue(index.getShards().isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+package com.myorg.lostfound.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SparseVectorTest {
+
+    @Test
+    void entriesAreSortedAndZeroWeightsDropped() {
+        SparseVector vector = SparseVector.of(new int[]{7, 2, 5, 9}, new float[]{1.0f, 2.0f, 0.0f, 3.0f}, 4);
+
+        assertEquals(3, vector.size());
+        assertEquals(2, vector.indexAt(0));
+        assertEquals(7, vector.indexAt(1));
+        assertEquals(9, vector.indexAt(2));
+        assertEquals(2.0f, vector.valueAt(0));
+        assertEquals(Math.sqrt(14.0), vector.norm(), 1e-9);
+    }
+
+    @Test
+    void dotProductOnlyCountsSharedTerms() {
+        SparseVector a = SparseVector.of(new int[]{1, 3, 5}, new float[]{1.0f, 2.0f, 3.0f}, 3);
+        SparseVector b = SparseVector.of(new int[]{5, 4, 1}, new float[]{2.0f, 9.0f, 4.0f}, 3);
+
+        assertEquals(10.0, a.dot(b), 1e-9);
+        assertEquals(a.dot(b), b.dot(a), 1e-9);
+        assertEquals(0.0, a.dot(SparseVector.empty()));
+    }
+
+    @Test
+    void longVectorsAreSorted() {
+        int[] ids = new int[100];
+        float[] weights = new float[100];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 1000 - i * 3;
+            weights[i] = i + 1;
+        }
+
+        SparseVector vector = SparseVector.of(ids, weights, ids.length);
+        for (int i = 1; i < vector.size(); i++) {
+            assertTrue(vector.indexAt(i - 1) < vector.indexAt(i));
+        }
+        assertEquals(100.0f, vector.valueAt(0));
+    }
+
+    @Test
+    void sparseCosineMatchesMapCosine() {
+        TextVectorizer vectorizer = new TextVectorizer();
+        vectorizer.fit(Arrays.asList(
+                "Lost black iPhone near the coffee shop",
+                "Found black iPhone near downtown coffee shop",
+                "Lost wallet with credit cards",
+                "Found keys in the parking lot"));
+
+        String first = "black iPhone lost near coffee shop";
+        String second = "Found black iPhone near downtown";
+        Map<String, Double> mapA = vectorizer.transform(first);
+        Map<String, Double> mapB = vectorizer.transform(second);
+
+        double expected = CosineSimilarity.compute(mapA, mapB);
+        double actual = CosineSimilarity.compute(vectorizer.transformSparse(first), vectorizer.transformSparse(second));
+        assertTrue(expected > 0.0);
+        assertEquals(expected, actual, 1e-6);
+    }
+}
@@ -0,0 +1,52 @@
+package com.myorg.lostfound.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TermUpperBoundsTest {
+
+    @Test
+    void cosineUpperBoundIsNeverBelowTheActualSimilarity() {
+        List<SparseVector> vectors = Arrays.asList(
+                SparseVector.of(new int[]{0, 1, 2}, new float[]{1.0f, 2.0f, 0.5f}, 3),
+                SparseVector.of(new int[]{1, 3}, new float[]{0.3f, 4.0f}, 2),
+                SparseVector.of(new int[]{2, 4}, new float[]{1.5f, 1.5f}, 2));
+        TermUpperBounds bounds = TermUpperBounds.of(vectors);
+
+        SparseVector query = SparseVector.of(new int[]{1, 2, 7}, new float[]{1.0f, 2.0f, 1.0f}, 3);
+        double bound = bounds.cosineUpperBound(query);
+        for (SparseVector vector : vectors) {
+            assertTrue(CosineSimilarity.compute(query, vector) <= bound);
+        }
+        assertTrue(bound < 1.0);
+    }
+
+    @Test
+    void unknownTermsContributeNothing() {
+        TermUpperBounds bounds = TermUpperBounds.of(Arrays.asList(
+                SparseVector.of(new int[]{0}, new float[]{2.0f}, 1)));
+
+        assertEquals(0.0, bounds.cosineUpperBound(SparseVector.of(new int[]{5}, new float[]{1.0f}, 1)));
+        assertEquals(0.0f, bounds.getMaxWeight(-1));
+        assertEquals(1.0, bounds.cosineUpperBound(SparseVector.of(new int[]{0}, new float[]{3.0f}, 1)), 1e-6);
+    }
+
+    @Test
+    void withOnlyRaisesBounds() {
+        TermUpperBounds bounds = TermUpperBounds.of(Arrays.asList(
+                SparseVector.of(new int[]{0, 1}, new float[]{1.0f, 1.0f}, 2)));
+        TermUpperBounds raised = bounds.with(Arrays.asList(
+                SparseVector.of(new int[]{0}, new float[]{2.0f}, 1),
+                SparseVector.of(new int[]{1, 9}, new float[]{1.0f, 3.0f}, 2)));
+
+        assertEquals(1.0f, raised.getMaxWeight(0), 1e-6f);
+        assertEquals(bounds.getMaxWeight(1), raised.getMaxWeight(1));
+        assertTrue(raised.getMaxWeight(9) > 0.9f);
+        assertEquals(0.0f, bounds.getMaxWeight(9));
+        assertSame(bounds, bounds.with(Arrays.asList()));
+    }
+}
@@ -0,0 +1,39 @@
+package com.myorg.lostfound.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextVectorizerTest {
+
+    @Test
+    void incrementalUpdatesMatchFullFit() {
+        TextVectorizer fitted = new TextVectorizer();
+        fitted.fit(Arrays.asList(
+                "Found black iPhone near the coffee shop",
+                "Lost brown leather wallet",
+                "Found keys in the parking lot"));
+
+        TextVectorizer incremental = new TextVectorizer();
+        incremental.fit(Arrays.asList(
+                "Found black iPhone near the coffee shop",
+                "Lost red umbrella"));
+        incremental.addDocument("Found keys in the parking lot");
+        incremental.updateDocument("Lost red umbrella", "Lost brown leather wallet");
+
+        assertEquals(fitted.getTotalDocuments(), incremental.getTotalDocuments());
+        assertEquals(fitted.getIdfMap(), incremental.getIdfMap());
+    }
+
+    @Test
+    void removedTermsNoLongerCarryWeight() {
+        TextVectorizer vectorizer = new TextVectorizer();
+        vectorizer.fit(Arrays.asList("black iphone", "brown wallet"));
+        vectorizer.removeDocument("brown wallet");
+
+        assertFalse(vectorizer.getIdfMap().containsKey("wallet"));
+        assertTrue(vectorizer.transformSparse("brown wallet").isEmpty());
+    }
+}
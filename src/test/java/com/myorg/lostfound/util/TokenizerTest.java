@@ -0,0 +1,48 @@
+package com.myorg.lostfound.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenizerTest {
+
+    @Test
+    void matchesRegexTokenization() {
+        List<String> samples = Arrays.asList(
+                "Found black iPhone near the coffee-shop!",
+                "  Lost brown leather wallet, ID#1234 inside\tand\nkeys ",
+                "Sac à dos BLEU (Nike) près du café",
+                "a an the",
+                "");
+
+        for (String sample : samples) {
+            List<String> expected = Arrays.stream(sample.toLowerCase()
+                    .replaceAll("[^a-zA-Z0-9\\s]", " ")
+                    .split("\\s+"))
+                    .filter(word -> word.length() > 2)
+                    .collect(Collectors.toList());
+            assertEquals(expected, Tokenizer.tokens(sample), sample);
+        }
+    }
+
+    @Test
+    void reusesTermBufferAndSupportsNestedCalls() {
+        List<String> outer = new ArrayList<>();
+        List<String> inner = new ArrayList<>();
+        int count = Tokenizer.forEachTerm("black wallet", term -> {
+            outer.add(term.toString());
+            Tokenizer.forEachTerm("red umbrella", nested -> inner.add(nested.toString()));
+        });
+
+        assertEquals(2, count);
+        assertEquals(Arrays.asList("black", "wallet"), outer);
+        assertEquals(Arrays.asList("red", "umbrella", "red", "umbrella"), inner);
+        assertEquals(Collections.emptyList(), Tokenizer.tokens(null));
+    }
+}
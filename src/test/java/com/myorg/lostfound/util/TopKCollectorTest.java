@@ -0,0 +1,38 @@
+package com.myorg.lostfound.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKCollectorTest {
+
+    @Test
+    void keepsHighestScoresInDescendingOrder() {
+        TopKCollector<String> collector = new TopKCollector<>(3);
+        collector.offer("a", 0.1);
+        collector.offer("b", 0.9);
+        collector.offer("c", 0.5);
+        assertEquals(0.1, collector.threshold());
+
+        collector.offer("d", 0.7);
+        assertFalse(collector.offer("e", 0.2));
+
+        assertEquals(Arrays.asList("b", "d", "c"), collector.toSortedList());
+        assertEquals(0.5, collector.threshold());
+    }
+
+    @Test
+    void mergesCollectors() {
+        TopKCollector<String> first = new TopKCollector<>(2);
+        first.offer("a", 0.3);
+        first.offer("b", 0.8);
+        TopKCollector<String> second = new TopKCollector<>(2);
+        second.offer("c", 0.6);
+        second.offer("d", 0.1);
+
+        first.addAll(second);
+        assertEquals(Arrays.asList("b", "c"), first.toSortedList());
+    }
+}
@@ -0,0 +1,38 @@
+package com.myorg.lostfound.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VocabularyTest {
+
+    @Test
+    void internsTermsToStableDenseIds() {
+        Vocabulary vocabulary = new Vocabulary();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, vocabulary.intern("term" + i));
+        }
+
+        assertEquals(1000, vocabulary.size());
+        assertEquals(42, vocabulary.intern(new StringBuilder("term42")));
+        assertEquals(999, vocabulary.idOf("term999"));
+        assertEquals(-1, vocabulary.idOf("missing"));
+        assertEquals("term7", vocabulary.getTerm(7));
+    }
+
+    @Test
+    void computesIdfFromDocumentFrequency() {
+        Vocabulary vocabulary = new Vocabulary();
+        int wallet = vocabulary.intern("wallet");
+        int phone = vocabulary.intern("phone");
+        vocabulary.incrementDocumentFrequency(wallet);
+        vocabulary.incrementDocumentFrequency(wallet);
+        vocabulary.incrementDocumentFrequency(phone);
+        vocabulary.decrementDocumentFrequency(phone);
+        vocabulary.computeIdf(4);
+
+        assertEquals(Math.log(2.0), vocabulary.getIdf(wallet), 1e-12);
+        assertEquals(0.0, vocabulary.getIdf(phone));
+        assertEquals(0, vocabulary.copy().getDocumentFrequency(phone));
+    }
+}